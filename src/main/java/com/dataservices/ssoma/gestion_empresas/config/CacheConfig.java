@@ -0,0 +1,43 @@
+package com.dataservices.ssoma.gestion_empresas.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EMPRESAS_POR_ID = "empresasPorId";
+    public static final String EMPRESAS_POR_RUC = "empresasPorRuc";
+    public static final String EXISTE_RUC = "existeRuc";
+
+    @Value("${app.cache.empresas.maximo-entradas:10000}")
+    private long maximoEntradas;
+
+    @Value("${app.cache.empresas.ttl:10m}")
+    private Duration ttl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        // Nombres fijos para que Actuator registre las métricas de cada cache al arrancar
+        cacheManager.setCacheNames(List.of(EMPRESAS_POR_ID, EMPRESAS_POR_RUC, EXISTE_RUC));
+        cacheManager.setAllowNullValues(false);
+
+        // Las invalidaciones se aplican después del commit para no recargar datos sin confirmar
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
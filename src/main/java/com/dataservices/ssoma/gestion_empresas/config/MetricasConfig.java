@@ -0,0 +1,32 @@
+package com.dataservices.ssoma.gestion_empresas.config;
+
+import com.dataservices.ssoma.gestion_empresas.metricas.ContadorConsultasListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricasConfig {
+
+    // Cada sentencia que llega al DataSource pasa por el contador de consultas por petición.
+    // El pool sigue accesible con unwrap(), así que sus métricas se registran igual
+    @Bean
+    public static BeanPostProcessor contadorConsultasDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new ContadorConsultasListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,16 +1,18 @@
 package com.dataservices.ssoma.gestion_empresas.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.dataservices.ssoma.gestion_empresas.metricas.ConsultasPorPeticionInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    private final ConsultasPorPeticionInterceptor consultasPorPeticionInterceptor;
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
@@ -22,10 +24,12 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/*.html", "/*.js", "/*.css")
                 .addResourceLocations("classpath:/static/frontend/");
 
-        // Servir archivos subidos (solo para desarrollo - en producción usar nginx/apache)
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/")
-                .setCachePeriod(3600); // Cache por 1 hora
+        // Los archivos subidos (/uploads/**) los sirve ArchivosSubidosController con DescargaArchivosService
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(consultasPorPeticionInterceptor).addPathPatterns("/api/**");
     }
 
     @Override
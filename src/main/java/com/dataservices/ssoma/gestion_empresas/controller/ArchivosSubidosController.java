@@ -0,0 +1,44 @@
+package com.dataservices.ssoma.gestion_empresas.controller;
+
+import com.dataservices.ssoma.gestion_empresas.service.DescargaArchivosService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Archivos subidos servidos por su nombre (solo para desarrollo - en producción usar nginx/apache).
+ * Reemplaza al manejador de recursos estáticos para compartir con la API la ubicación de los
+ * archivos fragmentados y el envío por sendfile o por el proxy.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ArchivosSubidosController {
+
+    // Cache por 1 hora
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofHours(1));
+
+    private final DescargaArchivosService descargaArchivosService;
+
+    @GetMapping("/uploads/{*ruta}")
+    public ResponseEntity<Resource> servirArchivo(@PathVariable String ruta,
+                                                  HttpServletRequest request, HttpServletResponse response) {
+        try {
+            return descargaArchivosService.responder(ruta.substring(1), request, response, null, CACHE);
+        } catch (IOException ex) {
+            log.error("Error sirviendo archivo {}: {}", ruta, ex.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.dataservices.ssoma.gestion_empresas.controller;
 
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaBusquedaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaListadoDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentosLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.SnapshotEstadisticaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ResumenVencimientosEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ResumenVencimientosLoteDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.response.ApiResponse;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoLoteDTO;
 import com.dataservices.ssoma.gestion_empresas.service.DocumentoEmpresaService;
+import com.dataservices.ssoma.gestion_empresas.service.EstadisticasSnapshotService;
+import com.dataservices.ssoma.gestion_empresas.util.FiltroVencimiento;
+import com.dataservices.ssoma.gestion_empresas.util.FormatoExportacion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,9 +22,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -28,6 +41,7 @@ import java.util.UUID;
 public class DocumentoEmpresaController {
 
     private final DocumentoEmpresaService documentoService;
+    private final EstadisticasSnapshotService snapshotService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<DocumentoEmpresaDTO>> crearDocumento(
@@ -42,6 +56,20 @@ public class DocumentoEmpresaController {
                 .body(ApiResponse.success("Documento creado exitosamente", nuevoDocumento));
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponse<ResultadoLoteDTO>> crearDocumentosEnLote(
+            @Valid @RequestBody DocumentosLoteDTO lote) {
+        log.info("POST /documentos-empresa/lote - Registrando lote de {} documentos",
+                lote.getDocumentos().size());
+
+        ResultadoLoteDTO resultado = documentoService.crearDocumentosEnLote(lote.getDocumentos());
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Lote procesado: %d documentos creados, %d con error",
+                        resultado.getCreados(), resultado.getFallidos()),
+                resultado));
+    }
+
     @PutMapping("/{documentoId}")
     public ResponseEntity<ApiResponse<DocumentoEmpresaDTO>> actualizarDocumento(
             @PathVariable UUID documentoId,
@@ -102,6 +130,68 @@ public class DocumentoEmpresaController {
                 documentosPage));
     }
 
+    @GetMapping("/empresa/{empresaId}/cursor")
+    public ResponseEntity<ApiResponse<PaginaCursor<DocumentoEmpresaDTO>>> obtenerDocumentosPorEmpresaConCursor(
+            @PathVariable UUID empresaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "fechaVencimiento") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        log.info("GET /documentos-empresa/empresa/{}/cursor - Cursor: {}, Tamaño: {}",
+                empresaId, cursor, size);
+
+        PaginaCursor<DocumentoEmpresaDTO> pagina = documentoService
+                .obtenerDocumentosPorEmpresaConCursor(empresaId, sortBy, sortDir, cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se obtuvieron %d documentos", pagina.getTamano()),
+                pagina));
+    }
+
+    @GetMapping("/listado")
+    public ResponseEntity<ApiResponse<PaginaCursor<DocumentoEmpresaListadoDTO>>> listarDocumentos(
+            @RequestParam(required = false) List<UUID> empresaIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @RequestParam(required = false) String nombreDocumento,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+
+        log.info("GET /documentos-empresa/listado - Cursor: {}, Tamaño: {}", cursor, size);
+
+        PaginaCursor<DocumentoEmpresaListadoDTO> pagina = documentoService.listarDocumentos(
+                empresaIds, fechaDesde, fechaHasta, nombreDocumento, cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se obtuvieron %d documentos", pagina.getTamano()),
+                pagina));
+    }
+
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarDocumentos(
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(defaultValue = "todos") String filtro,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(defaultValue = "30") int diasAnticipacion) {
+        log.info("GET /documentos-empresa/exportar - Formato: {}, Filtro: {}", formato, filtro);
+
+        // Dentro del cuerpo ya no se puede responder 400: los parámetros se validan antes
+        FormatoExportacion formatoExportacion = FormatoExportacion.desde(formato);
+        FiltroVencimiento filtroVencimiento = FiltroVencimiento.desde(filtro);
+        if (diasAnticipacion < 0) {
+            throw new IllegalArgumentException("Los días de anticipación no pueden ser negativos");
+        }
+        StreamingResponseBody cuerpo = salida -> documentoService.exportarDocumentos(
+                formatoExportacion, filtroVencimiento, fecha, diasAnticipacion, salida);
+
+        return ResponseEntity.ok()
+                .contentType(formatoExportacion.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"documentos-empresa." + formatoExportacion.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
     @GetMapping("/fecha/{fecha}")
     public ResponseEntity<ApiResponse<List<DocumentoEmpresaDTO>>> obtenerDocumentosPorFecha(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
@@ -244,6 +334,21 @@ public class DocumentoEmpresaController {
                 documentos));
     }
 
+    @GetMapping("/busqueda")
+    public ResponseEntity<ApiResponse<List<DocumentoEmpresaBusquedaDTO>>> buscarDocumentosPorSimilitud(
+            @RequestParam String texto,
+            @RequestParam(required = false) UUID empresaId,
+            @RequestParam(defaultValue = "20") int limite) {
+        log.info("GET /documentos-empresa/busqueda - Buscando por similitud: {}", texto);
+
+        List<DocumentoEmpresaBusquedaDTO> documentos = documentoService
+                .buscarDocumentosPorSimilitud(texto, empresaId, limite);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se encontraron %d documentos", documentos.size()),
+                documentos));
+    }
+
     @GetMapping("/empresa/{empresaId}/buscar")
     public ResponseEntity<ApiResponse<List<DocumentoEmpresaDTO>>> buscarDocumentosPorNombreYEmpresa(
             @PathVariable UUID empresaId,
@@ -273,9 +378,11 @@ public class DocumentoEmpresaController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> obtenerEstadisticasDocumentos() {
         log.info("GET /documentos-empresa/estadisticas - Obteniendo estadísticas generales");
 
-        Map<String, Object> estadisticas = documentoService.obtenerEstadisticasDocumentos();
+        SnapshotEstadisticaDTO<Map<String, Object>> estadisticas = snapshotService.obtenerEstadisticasDocumentos();
 
-        return ResponseEntity.ok(ApiResponse.success("Estadísticas obtenidas", estadisticas));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(estadisticas.getEdadSegundos()))
+                .body(ApiResponse.success("Estadísticas obtenidas", estadisticas.getValor()));
     }
 
     @GetMapping("/empresa/{empresaId}/estadisticas")
@@ -291,21 +398,39 @@ public class DocumentoEmpresaController {
     }
 
     @GetMapping("/resumen-vencimientos")
-    public ResponseEntity<ApiResponse<Map<String, Long>>> obtenerResumenVencimientos() {
+    public ResponseEntity<ApiResponse<Map<String, Long>>> obtenerResumenVencimientos(
+            @RequestParam(required = false) List<Integer> horizontes) {
         log.info("GET /documentos-empresa/resumen-vencimientos - Obteniendo resumen");
 
-        Map<String, Long> resumen = documentoService.obtenerResumenVencimientos();
+        Map<String, Long> resumen = documentoService.obtenerResumenVencimientos(horizontes);
 
         return ResponseEntity.ok(ApiResponse.success("Resumen de vencimientos obtenido", resumen));
     }
 
+    @PostMapping("/resumen-vencimientos/lote")
+    public ResponseEntity<ApiResponse<PaginaCursor<ResumenVencimientosEmpresaDTO>>> obtenerResumenVencimientosPorLote(
+            @Valid @RequestBody ResumenVencimientosLoteDTO solicitud) {
+        log.info("POST /documentos-empresa/resumen-vencimientos/lote - Cursor: {}", solicitud.getCursor());
+
+        int size = solicitud.getSize() != null ? solicitud.getSize() : 500;
+        PaginaCursor<ResumenVencimientosEmpresaDTO> pagina = documentoService
+                .obtenerResumenVencimientosPorEmpresas(
+                        solicitud.getEmpresaIds(), solicitud.getHorizontes(), solicitud.getCursor(), size);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Resumen de vencimientos obtenido para %d empresas", pagina.getTamano()),
+                pagina));
+    }
+
     @GetMapping("/empresa/{empresaId}/resumen-vencimientos")
     public ResponseEntity<ApiResponse<Map<String, Long>>> obtenerResumenVencimientosPorEmpresa(
-            @PathVariable UUID empresaId) {
+            @PathVariable UUID empresaId,
+            @RequestParam(required = false) List<Integer> horizontes) {
         log.info("GET /documentos-empresa/empresa/{}/resumen-vencimientos - Resumen por empresa",
                 empresaId);
 
-        Map<String, Long> resumen = documentoService.obtenerResumenVencimientosPorEmpresa(empresaId);
+        Map<String, Long> resumen = documentoService
+                .obtenerResumenVencimientosPorEmpresa(empresaId, horizontes);
 
         return ResponseEntity.ok(ApiResponse.success("Resumen de vencimientos obtenido", resumen));
     }
@@ -1,8 +1,17 @@
 package com.dataservices.ssoma.gestion_empresas.controller;
 
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaBusquedaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaSugerenciaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresasLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.SnapshotEstadisticaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.response.ApiResponse;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.service.AutocompletadoEmpresasService;
 import com.dataservices.ssoma.gestion_empresas.service.EmpresaService;
+import com.dataservices.ssoma.gestion_empresas.service.EstadisticasSnapshotService;
+import com.dataservices.ssoma.gestion_empresas.util.FormatoExportacion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,9 +19,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +37,8 @@ import java.util.UUID;
 public class EmpresaController {
 
     private final EmpresaService empresaService;
+    private final EstadisticasSnapshotService snapshotService;
+    private final AutocompletadoEmpresasService autocompletadoService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<EmpresaDTO>> crearEmpresa(@Valid @RequestBody EmpresaDTO empresaDTO) {
@@ -38,6 +51,19 @@ public class EmpresaController {
                 .body(ApiResponse.success("Empresa creada exitosamente", nuevaEmpresa));
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponse<ResultadoLoteDTO>> guardarEmpresasEnLote(
+            @Valid @RequestBody EmpresasLoteDTO lote) {
+        log.info("POST /empresas/lote - Guardando lote de {} empresas", lote.getEmpresas().size());
+
+        ResultadoLoteDTO resultado = empresaService.guardarEmpresasEnLote(lote.getEmpresas());
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Lote procesado: %d creadas, %d actualizadas, %d con error",
+                        resultado.getCreados(), resultado.getActualizados(), resultado.getFallidos()),
+                resultado));
+    }
+
     @PutMapping("/{empresaId}")
     public ResponseEntity<ApiResponse<EmpresaDTO>> actualizarEmpresa(
             @PathVariable UUID empresaId,
@@ -50,10 +76,18 @@ public class EmpresaController {
     }
 
     @GetMapping("/{empresaId}")
-    public ResponseEntity<ApiResponse<EmpresaDTO>> obtenerEmpresaPorId(@PathVariable UUID empresaId) {
+    public ResponseEntity<ApiResponse<EmpresaDTO>> obtenerEmpresaPorId(
+            @PathVariable UUID empresaId,
+            @RequestParam(required = false) String ordenDocumentos,
+            @RequestParam(required = false) String direccionDocumentos,
+            @RequestParam(required = false) Integer limiteDocumentos) {
         log.info("GET /empresas/{} - Obteniendo empresa por ID", empresaId);
 
-        EmpresaDTO empresa = empresaService.obtenerEmpresaPorId(empresaId);
+        // Sin parámetros de documentos se usa la consulta por defecto, que está en cache
+        EmpresaDTO empresa = ordenDocumentos == null && direccionDocumentos == null && limiteDocumentos == null
+                ? empresaService.obtenerEmpresaPorId(empresaId)
+                : empresaService.obtenerEmpresaConDocumentos(
+                        empresaId, ordenDocumentos, direccionDocumentos, limiteDocumentos);
 
         return ResponseEntity.ok(ApiResponse.success("Empresa encontrada", empresa));
     }
@@ -77,6 +111,21 @@ public class EmpresaController {
                 String.format("Se encontraron %d empresas", empresas.size()), empresas));
     }
 
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarEmpresas(
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        log.info("GET /empresas/exportar - Formato: {}", formato);
+
+        FormatoExportacion formatoExportacion = FormatoExportacion.desde(formato);
+        StreamingResponseBody cuerpo = salida -> empresaService.exportarEmpresas(formatoExportacion, salida);
+
+        return ResponseEntity.ok()
+                .contentType(formatoExportacion.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"empresas." + formatoExportacion.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
     @GetMapping("/paginado")
     public ResponseEntity<ApiResponse<Page<EmpresaDTO>>> obtenerEmpresasPaginadas(
             @RequestParam(defaultValue = "0") int page,
@@ -119,6 +168,32 @@ public class EmpresaController {
                 empresasPage));
     }
 
+    @GetMapping("/busqueda")
+    public ResponseEntity<ApiResponse<List<EmpresaBusquedaDTO>>> buscarEmpresasPorSimilitud(
+            @RequestParam String texto,
+            @RequestParam(defaultValue = "20") int limite) {
+        log.info("GET /empresas/busqueda - Buscando por similitud: {}", texto);
+
+        List<EmpresaBusquedaDTO> empresas = empresaService.buscarEmpresasPorSimilitud(texto, limite);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se encontraron %d empresas", empresas.size()),
+                empresas));
+    }
+
+    @GetMapping("/autocompletar")
+    public ResponseEntity<ApiResponse<List<EmpresaSugerenciaDTO>>> autocompletarEmpresas(
+            @RequestParam String texto,
+            @RequestParam(defaultValue = "10") int limite) {
+        log.debug("GET /empresas/autocompletar - Texto: {}", texto);
+
+        List<EmpresaSugerenciaDTO> sugerencias = autocompletadoService.sugerir(texto, limite);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se encontraron %d sugerencias", sugerencias.size()),
+                sugerencias));
+    }
+
     @GetMapping("/sector/{sector}")
     public ResponseEntity<ApiResponse<List<EmpresaDTO>>> obtenerEmpresasPorSector(
             @PathVariable String sector) {
@@ -194,6 +269,27 @@ public class EmpresaController {
                 empresasPage));
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<PaginaCursor<EmpresaDTO>>> buscarEmpresasConCursor(
+            @RequestParam(required = false) String razonSocial,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) Integer scoreMin,
+            @RequestParam(required = false) Integer scoreMax,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "razonSocial") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        log.info("GET /empresas/cursor - Cursor: {}, Tamaño: {}", cursor, size);
+
+        PaginaCursor<EmpresaDTO> pagina = empresaService.buscarEmpresasConCursor(
+                razonSocial, sector, scoreMin, scoreMax, sortBy, sortDir, cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se obtuvieron %d empresas", pagina.getTamano()),
+                pagina));
+    }
+
     @DeleteMapping("/{empresaId}")
     public ResponseEntity<ApiResponse<Void>> eliminarEmpresa(@PathVariable UUID empresaId) {
         log.info("DELETE /empresas/{} - Eliminando empresa", empresaId);
@@ -208,18 +304,22 @@ public class EmpresaController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> obtenerEstadisticasGenerales() {
         log.info("GET /empresas/estadisticas - Obteniendo estadísticas generales");
 
-        Map<String, Object> estadisticas = empresaService.obtenerEstadisticasGenerales();
+        SnapshotEstadisticaDTO<Map<String, Object>> estadisticas = snapshotService.obtenerEstadisticasEmpresas();
 
-        return ResponseEntity.ok(ApiResponse.success("Estadísticas obtenidas", estadisticas));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(estadisticas.getEdadSegundos()))
+                .body(ApiResponse.success("Estadísticas obtenidas", estadisticas.getValor()));
     }
 
     @GetMapping("/sectores")
     public ResponseEntity<ApiResponse<List<String>>> obtenerSectoresDisponibles() {
         log.info("GET /empresas/sectores - Obteniendo sectores disponibles");
 
-        List<String> sectores = empresaService.obtenerSectoresDisponibles();
+        SnapshotEstadisticaDTO<List<String>> sectores = snapshotService.obtenerSectores();
 
-        return ResponseEntity.ok(ApiResponse.success("Sectores obtenidos", sectores));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(sectores.getEdadSegundos()))
+                .body(ApiResponse.success("Sectores obtenidos", sectores.getValor()));
     }
 
     @GetMapping("/distribucion-sectores")
@@ -235,9 +335,11 @@ public class EmpresaController {
     public ResponseEntity<ApiResponse<List<EmpresaDTO>>> obtenerTop10EmpresasPorScore() {
         log.info("GET /empresas/top-score - Obteniendo top 10 empresas por score");
 
-        List<EmpresaDTO> empresas = empresaService.obtenerTop10EmpresasPorScore();
+        SnapshotEstadisticaDTO<List<EmpresaDTO>> empresas = snapshotService.obtenerTopScore();
 
-        return ResponseEntity.ok(ApiResponse.success("Top 10 empresas obtenidas", empresas));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(empresas.getEdadSegundos()))
+                .body(ApiResponse.success("Top 10 empresas obtenidas", empresas.getValor()));
     }
 
     @GetMapping("/score-bajo")
@@ -255,9 +357,11 @@ public class EmpresaController {
     public ResponseEntity<ApiResponse<Double>> obtenerScorePromedioSeguridad() {
         log.info("GET /empresas/score-promedio - Obteniendo score promedio");
 
-        Double scorePromedio = empresaService.obtenerScorePromedioSeguridad();
+        SnapshotEstadisticaDTO<Double> scorePromedio = snapshotService.obtenerScorePromedio();
 
-        return ResponseEntity.ok(ApiResponse.success("Score promedio obtenido", scorePromedio));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(scorePromedio.getEdadSegundos()))
+                .body(ApiResponse.success("Score promedio obtenido", scorePromedio.getValor()));
     }
 
     @GetMapping("/validar-ruc/{ruc}")
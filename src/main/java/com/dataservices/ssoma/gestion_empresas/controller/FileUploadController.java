@@ -1,20 +1,23 @@
 package com.dataservices.ssoma.gestion_empresas.controller;
 
+import com.dataservices.ssoma.gestion_empresas.dto.ArchivoDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.response.ApiResponse;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.exception.ArchivoDemasiadoGrandeException;
+import com.dataservices.ssoma.gestion_empresas.service.DescargaArchivosService;
 import com.dataservices.ssoma.gestion_empresas.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.MalformedURLException;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,6 +29,7 @@ import java.util.Map;
 public class FileUploadController {
 
     private final FileStorageService fileStorageService;
+    private final DescargaArchivosService descargaArchivosService;
 
     @PostMapping("/upload")
     public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(
@@ -41,11 +45,12 @@ public class FileUploadController {
                         .body(ApiResponse.error("El archivo está vacío"));
             }
 
-            // Validar tamaño (máximo 10MB)
-            if (file.getSize() > 10 * 1024 * 1024) {
+            // Validar tamaño
+            if (file.getSize() > fileStorageService.getTamanoMaximo().toBytes()) {
                 return ResponseEntity
                         .status(HttpStatus.BAD_REQUEST)
-                        .body(ApiResponse.error("El archivo es muy grande. Máximo 10MB"));
+                        .body(ApiResponse.error("El archivo es muy grande. Máximo "
+                                + fileStorageService.getTamanoMaximo().toMegabytes() + "MB"));
             }
 
             // Guardar archivo
@@ -70,29 +75,83 @@ public class FileUploadController {
         }
     }
 
+    /**
+     * Subida en streaming: el cuerpo de la petición es el archivo (application/octet-stream) y se escribe
+     * directamente en el directorio de destino, sin el archivo temporal de multipart.
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, String>>> uploadFileStream(
+            @RequestParam("nombre") String originalName, HttpServletRequest request) {
+
+        log.info("POST /archivos/upload (streaming) - Subiendo archivo: {}", originalName);
+
+        try {
+            // Con Content-Length declarado se rechaza antes de leer el cuerpo
+            if (request.getContentLengthLong() > fileStorageService.getTamanoMaximo().toBytes()) {
+                throw new ArchivoDemasiadoGrandeException("El archivo es muy grande. Máximo "
+                        + fileStorageService.getTamanoMaximo().toMegabytes() + "MB");
+            }
+
+            FileStorageService.ArchivoAlmacenado archivo =
+                    fileStorageService.storeStream(request.getInputStream(), originalName);
+
+            Map<String, String> response = new HashMap<>();
+            response.put("fileName", archivo.getFileName());
+            response.put("originalName", originalName);
+            response.put("downloadUrl", "/api/v1/archivos/download/" + archivo.getFileName());
+            response.put("size", String.valueOf(archivo.getTamano()));
+
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Archivo subido exitosamente", response));
+
+        } catch (ArchivoDemasiadoGrandeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(ApiResponse.error(ex.getMessage()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(ex.getMessage()));
+        } catch (Exception ex) {
+            log.error("Error subiendo archivo: {}", ex.getMessage(), ex);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error subiendo archivo: " + ex.getMessage()));
+        }
+    }
+
+    /**
+     * Descarga con validación condicional (304) y rangos (206). El envío del contenido depende de
+     * {@code app.descarga.modo}, ver {@link DescargaArchivosService}.
+     */
     @GetMapping("/download/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
+    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName,
+                                                 HttpServletRequest request, HttpServletResponse response) {
         log.info("GET /archivos/download/{} - Descargando archivo", fileName);
 
         try {
-            Path filePath = fileStorageService.loadFileAsPath(fileName);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                        .header(HttpHeaders.CONTENT_DISPOSITION,
-                                "attachment; filename=\"" + fileName + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (MalformedURLException ex) {
+            return descargaArchivosService.responder(fileName, request, response,
+                    "attachment; filename=\"" + fileName + "\"", null);
+        } catch (IOException ex) {
             log.error("Error descargando archivo {}: {}", fileName, ex.getMessage());
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping
+    public ResponseEntity<ApiResponse<PaginaCursor<ArchivoDTO>>> listarArchivos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) throws IOException {
+        log.info("GET /archivos - Cursor: {}, Tamaño: {}", cursor, size);
+
+        PaginaCursor<ArchivoDTO> pagina = fileStorageService.listarArchivos(cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se obtuvieron %d archivos", pagina.getTamano()),
+                pagina));
+    }
+
     @DeleteMapping("/delete/{fileName:.+}")
     public ResponseEntity<ApiResponse<Void>> deleteFile(@PathVariable String fileName) {
         log.info("DELETE /archivos/delete/{} - Eliminando archivo", fileName);
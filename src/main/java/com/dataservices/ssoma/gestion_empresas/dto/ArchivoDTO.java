@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivoDTO {
+
+    @JsonProperty("nombre_archivo")
+    private String nombreArchivo;
+
+    @JsonProperty("tamano")
+    private long tamano;
+
+    @JsonProperty("fecha_modificacion")
+    private Instant fechaModificacion;
+
+    @JsonProperty("download_url")
+    private String downloadUrl;
+}
@@ -0,0 +1,24 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultado de la agregación condicional de vencimientos: total de documentos,
+ * vencidos y cantidad por vencer para cada horizonte en días solicitado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoVencimientosDTO {
+
+    private long total;
+
+    private long vencidos;
+
+    // Horizonte en días -> documentos que vencen entre hoy y hoy + días
+    private Map<Integer, Long> porVencer;
+}
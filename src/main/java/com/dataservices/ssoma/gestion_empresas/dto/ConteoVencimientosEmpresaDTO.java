@@ -0,0 +1,22 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Conteo de vencimientos de una empresa, fila del GROUP BY empresa_id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoVencimientosEmpresaDTO {
+
+    private UUID empresaId;
+
+    private String razonSocial;
+
+    private ConteoVencimientosDTO conteo;
+}
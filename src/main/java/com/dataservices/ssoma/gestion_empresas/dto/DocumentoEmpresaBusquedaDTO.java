@@ -0,0 +1,37 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Resultado de la búsqueda por similitud de documentos. {@code puntaje} va de 0 a 1
+ * y los resultados llegan ordenados de mayor a menor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentoEmpresaBusquedaDTO {
+
+    @JsonProperty("documento_empresa_id")
+    private UUID documentoEmpresaId;
+
+    @JsonProperty("empresa_id")
+    private UUID empresaId;
+
+    @JsonProperty("razon_social")
+    private String razonSocial;
+
+    @JsonProperty("nombre_documento")
+    private String nombreDocumento;
+
+    @JsonProperty("fecha_vencimiento")
+    private LocalDate fechaVencimiento;
+
+    @JsonProperty("puntaje")
+    private Double puntaje;
+}
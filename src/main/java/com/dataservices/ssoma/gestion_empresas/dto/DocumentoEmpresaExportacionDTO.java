@@ -0,0 +1,32 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Fila plana de la exportación de documentos con los datos de su empresa.
+ * Se construye directamente en la consulta, sin hidratar entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentoEmpresaExportacionDTO {
+
+    private UUID documentoEmpresaId;
+
+    private UUID empresaId;
+
+    private String ruc;
+
+    private String razonSocial;
+
+    private String nombreDocumento;
+
+    private LocalDate fechaVencimiento;
+
+    private String documentoUrl;
+}
@@ -0,0 +1,37 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Proyección plana de un documento con la razón social de su empresa,
+ * usada por el listado general para no hidratar entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentoEmpresaListadoDTO {
+
+    @JsonProperty("documento_empresa_id")
+    private UUID documentoEmpresaId;
+
+    @JsonProperty("empresa_id")
+    private UUID empresaId;
+
+    @JsonProperty("razon_social")
+    private String razonSocial;
+
+    @JsonProperty("nombre_documento")
+    private String nombreDocumento;
+
+    @JsonProperty("fecha_vencimiento")
+    private LocalDate fechaVencimiento;
+
+    @JsonProperty("documento_url")
+    private String documentoUrl;
+}
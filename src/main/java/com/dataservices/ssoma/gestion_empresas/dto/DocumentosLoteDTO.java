@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Solicitud de registro masivo de documentos. Cada fila se valida por separado
+ * para poder informar el resultado de cada una.
+ */
+@Data
+public class DocumentosLoteDTO {
+
+    @JsonProperty("documentos")
+    @NotEmpty(message = "El lote debe contener al menos un documento")
+    @Size(max = 50000, message = "No se pueden registrar más de 50000 documentos por lote")
+    private List<DocumentoEmpresaDTO> documentos;
+}
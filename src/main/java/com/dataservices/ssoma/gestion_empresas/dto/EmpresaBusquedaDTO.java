@@ -0,0 +1,36 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Resultado de la búsqueda por similitud de empresas. {@code puntaje} va de 0 a 1
+ * y los resultados llegan ordenados de mayor a menor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpresaBusquedaDTO {
+
+    @JsonProperty("empresa_id")
+    private UUID empresaId;
+
+    @JsonProperty("ruc")
+    private String ruc;
+
+    @JsonProperty("razon_social")
+    private String razonSocial;
+
+    @JsonProperty("sector")
+    private String sector;
+
+    @JsonProperty("score_seguridad")
+    private Integer scoreSeguridad;
+
+    @JsonProperty("puntaje")
+    private Double puntaje;
+}
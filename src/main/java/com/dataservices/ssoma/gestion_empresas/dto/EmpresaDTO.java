@@ -1,5 +1,6 @@
 package com.dataservices.ssoma.gestion_empresas.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -41,4 +42,9 @@ public class EmpresaDTO {
 
     @JsonProperty("documentos")
     private List<DocumentoEmpresaDTO> documentos;
+
+    // Total de documentos cuando la lista viene limitada; solo lo informa la consulta por ID
+    @JsonProperty(value = "documentos_total", access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long documentosTotal;
 }
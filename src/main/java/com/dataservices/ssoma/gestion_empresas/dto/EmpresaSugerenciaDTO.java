@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Sugerencia de autocompletado de empresas, servida desde el índice en memoria.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpresaSugerenciaDTO {
+
+    @JsonProperty("empresa_id")
+    private UUID empresaId;
+
+    @JsonProperty("ruc")
+    private String ruc;
+
+    @JsonProperty("razon_social")
+    private String razonSocial;
+}
@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Solicitud de carga masiva de empresas. Cada fila se valida por separado
+ * para poder informar el resultado de cada una.
+ */
+@Data
+public class EmpresasLoteDTO {
+
+    @JsonProperty("empresas")
+    @NotEmpty(message = "El lote debe contener al menos una empresa")
+    @Size(max = 50000, message = "No se pueden cargar más de 50000 empresas por lote")
+    private List<EmpresaDTO> empresas;
+}
@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totales de empresas, score promedio y bandas de score calculados en una sola pasada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasEmpresasDTO {
+
+    private Long totalEmpresas;
+
+    private Double scorePromedio;
+
+    private Long empresasScoreAlto;
+
+    private Long empresasScoreMedio;
+
+    private Long empresasScoreBajo;
+
+    private Long totalSectores;
+}
@@ -0,0 +1,27 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenVencimientosEmpresaDTO {
+
+    @JsonProperty("empresa_id")
+    private UUID empresaId;
+
+    @JsonProperty("razon_social")
+    private String razonSocial;
+
+    @JsonProperty("total_documentos")
+    private Long totalDocumentos;
+
+    @JsonProperty("resumen")
+    private Map<String, Long> resumen;
+}
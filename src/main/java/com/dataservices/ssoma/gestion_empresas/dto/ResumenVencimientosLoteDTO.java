@@ -0,0 +1,33 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Solicitud del resumen de vencimientos para varias empresas.
+ * Sin {@code empresaIds} se recorren todas las empresas.
+ */
+@Data
+public class ResumenVencimientosLoteDTO {
+
+    @JsonProperty("empresa_ids")
+    @Size(max = 5000, message = "No se pueden solicitar más de 5000 empresas por lote")
+    private List<UUID> empresaIds;
+
+    @JsonProperty("horizontes")
+    private List<Integer> horizontes;
+
+    @JsonProperty("cursor")
+    private String cursor;
+
+    @JsonProperty("size")
+    @Min(value = 1, message = "El tamaño de página debe ser mayor a 0")
+    @Max(value = 1000, message = "El tamaño de página no puede exceder 1000")
+    private Integer size;
+}
@@ -0,0 +1,18 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cantidad de empresas por sector, obtenida con un único GROUP BY.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectorConteoDTO {
+
+    private String sector;
+
+    private Long cantidad;
+}
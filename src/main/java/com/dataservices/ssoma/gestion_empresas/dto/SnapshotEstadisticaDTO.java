@@ -0,0 +1,23 @@
+package com.dataservices.ssoma.gestion_empresas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Valor precalculado de una estadística junto con el instante en que se generó.
+ */
+@Getter
+@AllArgsConstructor
+public class SnapshotEstadisticaDTO<T> {
+
+    private final T valor;
+
+    private final Instant generadoEn;
+
+    public long getEdadSegundos() {
+        return Math.max(0, Duration.between(generadoEn, Instant.now()).getSeconds());
+    }
+}
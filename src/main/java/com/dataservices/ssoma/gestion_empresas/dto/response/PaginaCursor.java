@@ -0,0 +1,34 @@
+package com.dataservices.ssoma.gestion_empresas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados recorrida por cursor (keyset): no calcula el total
+ * de registros y entrega el cursor para pedir la página siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    @JsonProperty("contenido")
+    private List<T> contenido;
+
+    @JsonProperty("siguiente_cursor")
+    private String siguienteCursor;
+
+    @JsonProperty("tiene_mas")
+    private boolean tieneMas;
+
+    @JsonProperty("tamano")
+    private int tamano;
+
+    public static <T> PaginaCursor<T> of(List<T> contenido, String siguienteCursor) {
+        return new PaginaCursor<>(contenido, siguienteCursor, siguienteCursor != null, contenido.size());
+    }
+}
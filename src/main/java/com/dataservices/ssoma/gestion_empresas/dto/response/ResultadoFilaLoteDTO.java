@@ -0,0 +1,45 @@
+package com.dataservices.ssoma.gestion_empresas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoFilaLoteDTO {
+
+    public enum Estado {
+        CREADO,
+        ACTUALIZADO,
+        ERROR
+    }
+
+    // Posición de la fila en la solicitud, empezando en 0
+    @JsonProperty("fila")
+    private int fila;
+
+    @JsonProperty("id")
+    private UUID id;
+
+    @JsonProperty("estado")
+    private Estado estado;
+
+    @JsonProperty("mensaje")
+    private String mensaje;
+
+    public static ResultadoFilaLoteDTO creado(int fila, UUID id) {
+        return new ResultadoFilaLoteDTO(fila, id, Estado.CREADO, null);
+    }
+
+    public static ResultadoFilaLoteDTO actualizado(int fila, UUID id) {
+        return new ResultadoFilaLoteDTO(fila, id, Estado.ACTUALIZADO, null);
+    }
+
+    public static ResultadoFilaLoteDTO error(int fila, String mensaje) {
+        return new ResultadoFilaLoteDTO(fila, null, Estado.ERROR, mensaje);
+    }
+}
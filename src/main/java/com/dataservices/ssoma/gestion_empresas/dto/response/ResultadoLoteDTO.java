@@ -0,0 +1,45 @@
+package com.dataservices.ssoma.gestion_empresas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva: totales y el detalle de cada fila en el orden recibido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+    @JsonProperty("total")
+    private int total;
+
+    @JsonProperty("creados")
+    private long creados;
+
+    @JsonProperty("actualizados")
+    private long actualizados;
+
+    @JsonProperty("fallidos")
+    private long fallidos;
+
+    @JsonProperty("resultados")
+    private List<ResultadoFilaLoteDTO> resultados;
+
+    public static ResultadoLoteDTO of(List<ResultadoFilaLoteDTO> resultados) {
+        return new ResultadoLoteDTO(
+                resultados.size(),
+                contar(resultados, ResultadoFilaLoteDTO.Estado.CREADO),
+                contar(resultados, ResultadoFilaLoteDTO.Estado.ACTUALIZADO),
+                contar(resultados, ResultadoFilaLoteDTO.Estado.ERROR),
+                resultados);
+    }
+
+    private static long contar(List<ResultadoFilaLoteDTO> resultados, ResultadoFilaLoteDTO.Estado estado) {
+        return resultados.stream().filter(resultado -> resultado.getEstado() == estado).count();
+    }
+}
@@ -10,10 +10,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "EMPRESAS")
+@Table(name = "EMPRESAS", uniqueConstraints = @UniqueConstraint(name = Empresa.UK_RUC, columnNames = "ruc"))
 @Data
 public class Empresa {
 
+    // Índice único creado en V3__indices_consultas.sql
+    public static final String UK_RUC = "uk_empresas_ruc";
+
     @Id
     @GeneratedValue(generator = "UUID")
     @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
@@ -0,0 +1,16 @@
+package com.dataservices.ssoma.gestion_empresas.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Se publica al crear, actualizar o eliminar documentos de una empresa.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DocumentoEmpresaModificadoEvent {
+
+    private final UUID empresaId;
+}
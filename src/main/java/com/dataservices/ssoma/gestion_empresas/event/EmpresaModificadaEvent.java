@@ -0,0 +1,27 @@
+package com.dataservices.ssoma.gestion_empresas.event;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Se publica al crear, actualizar o eliminar una empresa. En las operaciones de lote
+ * {@code empresaId} es nulo y las empresas afectadas van en {@code empresaIds}.
+ */
+@Getter
+public class EmpresaModificadaEvent {
+
+    private final UUID empresaId;
+    private final List<UUID> empresaIds;
+
+    public EmpresaModificadaEvent(UUID empresaId) {
+        this.empresaId = empresaId;
+        this.empresaIds = List.of(empresaId);
+    }
+
+    public EmpresaModificadaEvent(List<UUID> empresaIds) {
+        this.empresaId = null;
+        this.empresaIds = List.copyOf(empresaIds);
+    }
+}
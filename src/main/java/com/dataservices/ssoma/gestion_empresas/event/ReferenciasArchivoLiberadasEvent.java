@@ -0,0 +1,20 @@
+package com.dataservices.ssoma.gestion_empresas.event;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Se publica cuando documentos dejan de apuntar a sus archivos: al eliminarlos, al cambiar
+ * su documento_url o al eliminar la empresa. Lleva los documento_url anteriores.
+ */
+@Getter
+public class ReferenciasArchivoLiberadasEvent {
+
+    private final List<String> documentoUrls;
+
+    public ReferenciasArchivoLiberadasEvent(List<String> documentoUrls) {
+        this.documentoUrls = documentoUrls.stream().filter(Objects::nonNull).toList();
+    }
+}
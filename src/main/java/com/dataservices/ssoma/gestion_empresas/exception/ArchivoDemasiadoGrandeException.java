@@ -0,0 +1,7 @@
+package com.dataservices.ssoma.gestion_empresas.exception;
+
+public class ArchivoDemasiadoGrandeException extends BusinessException {
+    public ArchivoDemasiadoGrandeException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.dataservices.ssoma.gestion_empresas.exception;
 
 import com.dataservices.ssoma.gestion_empresas.dto.response.ApiResponse;
+import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import com.dataservices.ssoma.gestion_empresas.util.RestriccionesBD;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -33,6 +36,15 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    // El RUC duplicado lo detecta el índice único; se responde igual que la validación previa del servicio
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        if (RestriccionesBD.violaRestriccion(ex, Empresa.UK_RUC)) {
+            return handleBusinessException(new BusinessException("Ya existe una empresa con el RUC indicado"));
+        }
+        return handleGenericException(ex);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
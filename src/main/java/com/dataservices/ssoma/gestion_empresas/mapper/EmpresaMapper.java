@@ -2,6 +2,7 @@ package com.dataservices.ssoma.gestion_empresas.mapper;
 
 import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
 import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -21,15 +22,17 @@ public interface EmpresaMapper {
     Empresa toEntity(EmpresaDTO empresaDTO);
 
     @Mapping(target = "documentos", source = "documentos")
+    @Mapping(target = "documentosTotal", ignore = true)
     @Named("toDTOWithDocumentos")
     EmpresaDTO toDTO(Empresa empresa);
 
     @Mapping(target = "documentos", ignore = true)
+    @Mapping(target = "documentosTotal", ignore = true)
     @Named("toDTOWithoutDocumentos")
     EmpresaDTO toDTOWithoutDocumentos(Empresa empresa);
 
     // Usar específicamente el método sin documentos para listas
-    @Mapping(target = "documentos", ignore = true)
+    @IterableMapping(qualifiedByName = "toDTOWithoutDocumentos")
     List<EmpresaDTO> toDTOList(List<Empresa> empresas);
 
     List<Empresa> toEntityList(List<EmpresaDTO> empresaDTOs);
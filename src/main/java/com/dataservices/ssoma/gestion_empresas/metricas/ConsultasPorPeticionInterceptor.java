@@ -0,0 +1,117 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Histograma de sentencias SQL por petición y endpoint. Un endpoint cuyo conteo crece con el tamaño
+ * de la respuesta en lugar de mantenerse constante tiene un N+1.
+ * Con open-in-view la medición incluye las cargas perezosas durante la serialización.
+ * <p>
+ * Las peticiones que superan el presupuesto de consultas suman al contador de excedidas y se registran
+ * en el log; si la petición fue muestreada, el log incluye las huellas SQL más repetidas.
+ * <p>
+ * Las respuestas en streaming no se cuentan: el conteo se descarta al iniciar el procesamiento asíncrono
+ * y el despacho ASYNC que completa la respuesta no registra una muestra propia.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultasPorPeticionInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String METRICA = "gestion.peticion.consultas";
+    public static final String METRICA_EXCEDIDAS = "gestion.peticion.consultas.excedidas";
+
+    /**
+     * Atributo de la petición con el número de sentencias ejecutadas, para las aserciones de los tests.
+     */
+    public static final String ATRIBUTO_CONSULTAS = ConsultasPorPeticionInterceptor.class.getName() + ".consultas";
+
+    private static final double[] LIMITES = {1, 2, 3, 5, 10, 20, 50, 100, 200, 500};
+    private static final int HUELLAS_EN_LOG = 5;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.consultas.presupuesto:50}")
+    private int presupuesto;
+
+    @Value("${app.consultas.muestreo:0.05}")
+    private double muestreo;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        ContadorConsultas.iniciar(muestreo > 0 && ThreadLocalRandom.current().nextDouble() < muestreo);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Las respuestas en streaming consultan desde otro hilo; no se cuentan
+        ContadorConsultas.finalizar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        // El re-despacho de una respuesta en streaming mediría solo el cierre, no la petición
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return;
+        }
+        ContadorConsultas.Medicion medicion = ContadorConsultas.finalizar();
+        if (medicion == null) {
+            return;
+        }
+        int consultas = medicion.getSentencias();
+        request.setAttribute(ATRIBUTO_CONSULTAS, consultas);
+
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+        DistributionSummary.builder(METRICA)
+                .description("Sentencias SQL ejecutadas por petición")
+                .baseUnit("consultas")
+                .serviceLevelObjectives(LIMITES)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(consultas);
+
+        if (consultas > presupuesto) {
+            Counter.builder(METRICA_EXCEDIDAS)
+                    .description("Peticiones que superaron el presupuesto de sentencias SQL")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            if (medicion.tieneHuellas()) {
+                log.warn("{} {} ejecutó {} consultas (presupuesto {}). Huellas más repetidas:\n{}",
+                        request.getMethod(), uri, consultas, presupuesto, formatear(medicion));
+            } else {
+                log.warn("{} {} ejecutó {} consultas (presupuesto {})",
+                        request.getMethod(), uri, consultas, presupuesto);
+            }
+        }
+    }
+
+    private String formatear(ContadorConsultas.Medicion medicion) {
+        return medicion.huellasMasFrecuentes(HUELLAS_EN_LOG).stream()
+                .map(huella -> String.format("  %dx %s", huella.getValue(), huella.getKey()))
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cuenta las sentencias SQL ejecutadas en el hilo actual mientras hay una medición abierta.
+ * Lo alimenta {@link ContadorConsultasListener} desde el proxy del DataSource, así que cubre
+ * JPA, consultas nativas y JdbcTemplate. Fuera de una petición (tareas programadas, arranque) no cuenta nada.
+ */
+public final class ContadorConsultas {
+
+    private static final ThreadLocal<Medicion> MEDICION = new ThreadLocal<>();
+
+    private ContadorConsultas() {
+    }
+
+    /**
+     * Abre una medición en el hilo. Con {@code conHuellas} también agrupa las sentencias por huella,
+     * lo que cuesta una normalización por sentencia y por eso solo se hace en las peticiones muestreadas.
+     */
+    public static void iniciar(boolean conHuellas) {
+        MEDICION.set(new Medicion(conHuellas ? new HashMap<>() : null));
+    }
+
+    /**
+     * Cierra la medición del hilo y la devuelve, o null si no había una abierta.
+     */
+    public static Medicion finalizar() {
+        Medicion medicion = MEDICION.get();
+        MEDICION.remove();
+        return medicion;
+    }
+
+    static void registrar(List<String> sentencias) {
+        Medicion medicion = MEDICION.get();
+        if (medicion == null) {
+            return;
+        }
+        // Un lote JDBC es un solo viaje a la base de datos
+        medicion.sentencias++;
+        if (medicion.huellas != null) {
+            sentencias.stream()
+                    .map(HuellaSQL::de)
+                    .distinct()
+                    .forEach(huella -> medicion.huellas.merge(huella, 1, Integer::sum));
+        }
+    }
+
+    public static final class Medicion {
+
+        private int sentencias;
+        private final Map<String, Integer> huellas;
+
+        private Medicion(Map<String, Integer> huellas) {
+            this.huellas = huellas;
+        }
+
+        public int getSentencias() {
+            return sentencias;
+        }
+
+        public boolean tieneHuellas() {
+            return huellas != null;
+        }
+
+        /**
+         * Las huellas más repetidas primero: en un N+1 encabeza la consulta que se ejecuta por cada elemento.
+         */
+        public List<Map.Entry<String, Integer>> huellasMasFrecuentes(int limite) {
+            if (huellas == null) {
+                return List.of();
+            }
+            return huellas.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .limit(limite)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Recibe cada ejecución del proxy del DataSource y la suma a la medición del hilo.
+ */
+public class ContadorConsultasListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ContadorConsultas.registrar(queryInfoList.stream().map(QueryInfo::getQuery).toList());
+    }
+}
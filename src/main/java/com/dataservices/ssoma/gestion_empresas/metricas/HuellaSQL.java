@@ -0,0 +1,28 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import java.util.regex.Pattern;
+
+/**
+ * Huella de una sentencia SQL: la misma consulta con literales y listas IN reemplazados por marcadores,
+ * para agrupar ejecuciones que solo difieren en los valores.
+ */
+final class HuellaSQL {
+
+    private static final int LONGITUD_MAXIMA = 500;
+
+    private static final Pattern CADENAS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMEROS = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTAS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private HuellaSQL() {
+    }
+
+    static String de(String sql) {
+        String huella = CADENAS.matcher(sql).replaceAll("?");
+        huella = NUMEROS.matcher(huella).replaceAll("?");
+        huella = LISTAS.matcher(huella).replaceAll("(?...)");
+        huella = ESPACIOS.matcher(huella).replaceAll(" ").trim();
+        return huella.length() > LONGITUD_MAXIMA ? huella.substring(0, LONGITUD_MAXIMA) + "..." : huella;
+    }
+}
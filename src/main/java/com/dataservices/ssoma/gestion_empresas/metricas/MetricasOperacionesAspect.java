@@ -0,0 +1,84 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timer por método de servicio y por consulta de repositorio, etiquetado por capa, operación,
+ * resultado y excepción. El conteo del timer por resultado hace de contador de llamadas y errores.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+// Por fuera de @Transactional y @Cacheable: incluye el commit y los aciertos de cache
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasOperacionesAspect {
+
+    public static final String METRICA = "gestion.operaciones";
+
+    private static final String PAQUETE = "com.dataservices.ssoma.gestion_empresas";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Class<?>, String> nombresRepositorio = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.dataservices.ssoma.gestion_empresas.service..*(..))")
+    public Object medirServicio(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operacion = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        return medir("servicio", operacion, joinPoint);
+    }
+
+    // Los métodos heredados de JpaRepository se declaran fuera del paquete: se nombran por la interfaz propia.
+    // En los métodos que devuelven Stream se mide hasta abrir el cursor, no su consumo
+    @Around("this(org.springframework.data.repository.Repository) && execution(public * *(..)) "
+            + "&& !execution(* java.lang.Object.*(..))")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operacion = nombreRepositorio(joinPoint.getThis().getClass())
+                + "." + joinPoint.getSignature().getName();
+        return medir("repositorio", operacion, joinPoint);
+    }
+
+    private Object medir(String capa, String operacion, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String resultado = "exito";
+        String excepcion = "ninguna";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            resultado = "error";
+            excepcion = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            muestra.stop(Timer.builder(METRICA)
+                    .description("Duración de los métodos de servicio y de las consultas de repositorio")
+                    .tag("capa", capa)
+                    .tag("operacion", operacion)
+                    .tag("resultado", resultado)
+                    .tag("excepcion", excepcion)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String nombreRepositorio(Class<?> proxy) {
+        return nombresRepositorio.computeIfAbsent(proxy, clase -> Arrays.stream(clase.getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .filter(interfaz -> interfaz.getName().startsWith(PAQUETE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(clase.getSimpleName()));
+    }
+}
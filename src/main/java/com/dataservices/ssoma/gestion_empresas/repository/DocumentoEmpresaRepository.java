@@ -1,19 +1,27 @@
 package com.dataservices.ssoma.gestion_empresas.repository;
 
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaExportacionDTO;
 import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface DocumentoEmpresaRepository extends JpaRepository<DocumentoEmpresa, UUID> {
+public interface DocumentoEmpresaRepository extends JpaRepository<DocumentoEmpresa, UUID>,
+        DocumentoEmpresaRepositoryCustom {
 
     List<DocumentoEmpresa> findByEmpresaId(UUID empresaId);
 
@@ -82,4 +90,27 @@ public interface DocumentoEmpresaRepository extends JpaRepository<DocumentoEmpre
             @Param("empresaId") UUID empresaId,
             @Param("fechaInicio") LocalDate fechaInicio,
             @Param("fechaFin") LocalDate fechaFin);
+
+    // Cursor JDBC para exportaciones: requiere una transacción abierta mientras se consume
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaExportacionDTO(" +
+            "de.documentoEmpresaId, e.empresaId, e.ruc, e.razonSocial, de.nombreDocumento, " +
+            "de.fechaVencimiento, de.documentoUrl) " +
+            "FROM DocumentoEmpresa de JOIN de.empresa e WHERE " +
+            "(CAST(:fechaDesde AS LocalDate) IS NULL OR de.fechaVencimiento >= :fechaDesde) AND " +
+            "(CAST(:fechaHasta AS LocalDate) IS NULL OR de.fechaVencimiento <= :fechaHasta) " +
+            "ORDER BY de.empresaId, de.fechaVencimiento")
+    Stream<DocumentoEmpresaExportacionDTO> streamExportacion(
+            @Param("fechaDesde") LocalDate fechaDesde,
+            @Param("fechaHasta") LocalDate fechaHasta);
+
+    // Documentos que apuntan al archivo deduplicado; servida por idx_documentos_empresa_archivo_sha256
+    @Query(value = "SELECT COUNT(*) FROM documentos_empresa " +
+            "WHERE documento_url ~ '/archivos/download/[0-9a-f]{64}' " +
+            "AND substring(documento_url from '/archivos/download/([0-9a-f]{64})') = :sha256",
+            nativeQuery = true)
+    long contarReferenciasArchivo(@Param("sha256") String sha256);
 }
@@ -0,0 +1,55 @@
+package com.dataservices.ssoma.gestion_empresas.repository;
+
+import com.dataservices.ssoma.gestion_empresas.dto.ConteoVencimientosDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ConteoVencimientosEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaBusquedaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaListadoDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface DocumentoEmpresaRepositoryCustom {
+
+    /**
+     * Cuenta total, vencidos y por vencer para cada horizonte en una sola pasada
+     * sobre DOCUMENTOS_EMPRESA. Si {@code empresaId} es null se consideran todas las empresas.
+     */
+    ConteoVencimientosDTO contarVencimientos(LocalDate fecha, List<Integer> horizontesDias, UUID empresaId);
+
+    /**
+     * Igual que {@link #contarVencimientos} pero agrupado por empresa (GROUP BY empresa_id),
+     * ordenado por empresa_id y paginado por cursor. Las empresas sin documentos devuelven ceros.
+     * Si {@code empresaIds} es null o vacío se recorren todas las empresas.
+     */
+    List<ConteoVencimientosEmpresaDTO> contarVencimientosPorEmpresa(
+            LocalDate fecha, List<Integer> horizontesDias, Collection<UUID> empresaIds,
+            UUID despuesDe, int limite);
+
+    /**
+     * Listado general paginado por cursor sobre la clave primaria. Solo los filtros presentes
+     * entran en el WHERE, así un rango de fechas puede servirse con el índice de fecha_vencimiento.
+     * Con {@code empresaIds} null o vacío se recorren todas las empresas; con {@code despuesDe}
+     * null se devuelve la primera página.
+     */
+    List<DocumentoEmpresaListadoDTO> findListado(
+            Collection<UUID> empresaIds, LocalDate fechaDesde, LocalDate fechaHasta,
+            String nombreDocumento, UUID despuesDe, int limite);
+
+    /**
+     * Documentos de una empresa recorridos por keyset sobre (campoOrden, documentoEmpresaId),
+     * sin OFFSET ni COUNT. Con {@code idCursor} null se devuelve la primera página.
+     */
+    List<DocumentoEmpresa> findByEmpresaIdConCursor(
+            UUID empresaId, String campoOrden, boolean descendente,
+            Object valorCursor, UUID idCursor, int limite);
+
+    /**
+     * Búsqueda por similitud sobre el nombre del documento (sin distinguir mayúsculas ni tildes),
+     * servida por el índice GiST de trigramas y ordenada por puntaje descendente.
+     * Si {@code empresaId} es null se consideran todas las empresas.
+     */
+    List<DocumentoEmpresaBusquedaDTO> buscarPorSimilitud(String texto, UUID empresaId, int limite);
+}
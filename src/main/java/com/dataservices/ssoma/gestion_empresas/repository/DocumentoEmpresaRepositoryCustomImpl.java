@@ -0,0 +1,262 @@
+package com.dataservices.ssoma.gestion_empresas.repository;
+
+import com.dataservices.ssoma.gestion_empresas.dto.ConteoVencimientosDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ConteoVencimientosEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaBusquedaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaListadoDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
+import com.dataservices.ssoma.gestion_empresas.util.CursorKeyset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class DocumentoEmpresaRepositoryCustomImpl implements DocumentoEmpresaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ConteoVencimientosDTO contarVencimientos(LocalDate fecha, List<Integer> horizontesDias, UUID empresaId) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*), ")
+                .append(columnasVencimiento("fecha_vencimiento", horizontesDias.size()))
+                .append(" FROM documentos_empresa");
+        if (empresaId != null) {
+            sql.append(" WHERE empresa_id = :empresaId");
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        asignarFechas(query, fecha, horizontesDias);
+        if (empresaId != null) {
+            query.setParameter("empresaId", empresaId);
+        }
+
+        return leerConteo((Object[]) query.getSingleResult(), 0, horizontesDias);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ConteoVencimientosEmpresaDTO> contarVencimientosPorEmpresa(
+            LocalDate fecha, List<Integer> horizontesDias, Collection<UUID> empresaIds,
+            UUID despuesDe, int limite) {
+        boolean filtrarEmpresas = empresaIds != null && !empresaIds.isEmpty();
+
+        // Se parte de EMPRESAS para que las empresas sin documentos también aparezcan
+        StringBuilder sql = new StringBuilder(
+                "SELECT e.empresa_id AS empresa_id, e.razon_social AS razon_social, COUNT(d.documento_empresa_id) AS total, ")
+                .append(columnasVencimiento("d.fecha_vencimiento", horizontesDias.size()))
+                .append(" FROM empresas e LEFT JOIN documentos_empresa d ON d.empresa_id = e.empresa_id")
+                .append(" WHERE 1 = 1");
+        if (filtrarEmpresas) {
+            sql.append(" AND e.empresa_id IN (:empresaIds)");
+        }
+        if (despuesDe != null) {
+            sql.append(" AND e.empresa_id > :despuesDe");
+        }
+        sql.append(" GROUP BY e.empresa_id, e.razon_social ORDER BY e.empresa_id");
+
+        // Tipos explícitos para que empresa_id llegue como UUID en cualquier driver
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addScalar("empresa_id", UUID.class)
+                .addScalar("razon_social", String.class)
+                .addScalar("total", Long.class)
+                .addScalar("vencidos", Long.class);
+        for (int i = 0; i < horizontesDias.size(); i++) {
+            query.addScalar("por_vencer_" + i, Long.class);
+        }
+        asignarFechas(query, fecha, horizontesDias);
+        if (filtrarEmpresas) {
+            query.setParameter("empresaIds", empresaIds);
+        }
+        if (despuesDe != null) {
+            query.setParameter("despuesDe", despuesDe);
+        }
+        query.setMaxResults(limite);
+
+        List<Object[]> filas = query.getResultList();
+        List<ConteoVencimientosEmpresaDTO> resultado = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            resultado.add(new ConteoVencimientosEmpresaDTO(
+                    (UUID) fila[0],
+                    (String) fila[1],
+                    leerConteo(fila, 2, horizontesDias)));
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<DocumentoEmpresaListadoDTO> findListado(
+            Collection<UUID> empresaIds, LocalDate fechaDesde, LocalDate fechaHasta,
+            String nombreDocumento, UUID despuesDe, int limite) {
+        boolean filtrarEmpresas = empresaIds != null && !empresaIds.isEmpty();
+
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaListadoDTO(" +
+                "de.documentoEmpresaId, de.empresaId, e.razonSocial, de.nombreDocumento, " +
+                "de.fechaVencimiento, de.documentoUrl) " +
+                "FROM DocumentoEmpresa de JOIN de.empresa e WHERE 1 = 1");
+        if (filtrarEmpresas) {
+            jpql.append(" AND de.empresaId IN :empresaIds");
+        }
+        if (fechaDesde != null) {
+            jpql.append(" AND de.fechaVencimiento >= :fechaDesde");
+        }
+        if (fechaHasta != null) {
+            jpql.append(" AND de.fechaVencimiento <= :fechaHasta");
+        }
+        if (nombreDocumento != null) {
+            jpql.append(" AND LOWER(de.nombreDocumento) LIKE LOWER(CONCAT('%', :nombreDocumento, '%'))");
+        }
+        if (despuesDe != null) {
+            jpql.append(" AND de.documentoEmpresaId > :despuesDe");
+        }
+        jpql.append(" ORDER BY de.documentoEmpresaId");
+
+        TypedQuery<DocumentoEmpresaListadoDTO> query =
+                entityManager.createQuery(jpql.toString(), DocumentoEmpresaListadoDTO.class);
+        if (filtrarEmpresas) {
+            query.setParameter("empresaIds", empresaIds);
+        }
+        if (fechaDesde != null) {
+            query.setParameter("fechaDesde", fechaDesde);
+        }
+        if (fechaHasta != null) {
+            query.setParameter("fechaHasta", fechaHasta);
+        }
+        if (nombreDocumento != null) {
+            query.setParameter("nombreDocumento", nombreDocumento);
+        }
+        if (despuesDe != null) {
+            query.setParameter("despuesDe", despuesDe);
+        }
+        query.setMaxResults(limite);
+
+        return query.getResultList();
+    }
+
+    @Override
+    public List<DocumentoEmpresa> findByEmpresaIdConCursor(
+            UUID empresaId, String campoOrden, boolean descendente,
+            Object valorCursor, UUID idCursor, int limite) {
+
+        String campo = "de." + campoOrden;
+        String condicionCursor = idCursor == null ? null
+                : CursorKeyset.condicionJpql(campo, "de.documentoEmpresaId", descendente, valorCursor == null);
+        List<DocumentoEmpresa> documentos = findByEmpresaIdConCondicion(
+                empresaId, campo, descendente, condicionCursor, valorCursor, idCursor, limite);
+
+        // La comparación de filas no alcanza a los nulos, que van al final: se completa la página con ellos
+        if (valorCursor != null && documentos.size() < limite) {
+            List<DocumentoEmpresa> pagina = new ArrayList<>(documentos);
+            pagina.addAll(findByEmpresaIdConCondicion(empresaId, campo, descendente,
+                    CursorKeyset.condicionNulos(campo), null, null, limite - documentos.size()));
+            return pagina;
+        }
+        return documentos;
+    }
+
+    private List<DocumentoEmpresa> findByEmpresaIdConCondicion(
+            UUID empresaId, String campo, boolean descendente,
+            String condicionCursor, Object valorCursor, UUID idCursor, int limite) {
+
+        StringBuilder jpql = new StringBuilder(
+                "SELECT de FROM DocumentoEmpresa de WHERE de.empresaId = :empresaId");
+        if (condicionCursor != null) {
+            jpql.append(" AND ").append(condicionCursor);
+        }
+        jpql.append(CursorKeyset.ordenJpql(campo, "de.documentoEmpresaId", descendente));
+
+        TypedQuery<DocumentoEmpresa> query = entityManager.createQuery(jpql.toString(), DocumentoEmpresa.class);
+        query.setParameter("empresaId", empresaId);
+        if (idCursor != null) {
+            query.setParameter("idCursor", idCursor);
+        }
+        if (valorCursor != null) {
+            query.setParameter("valorCursor", valorCursor);
+        }
+        query.setMaxResults(limite);
+
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DocumentoEmpresaBusquedaDTO> buscarPorSimilitud(String texto, UUID empresaId, int limite) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT d.documento_empresa_id AS documento_empresa_id, d.empresa_id AS empresa_id, " +
+                "e.razon_social AS razon_social, d.nombre_documento AS nombre_documento, " +
+                "d.fecha_vencimiento AS fecha_vencimiento, " +
+                "word_similarity(f_normalizar_busqueda(:texto), f_normalizar_busqueda(d.nombre_documento)) AS puntaje " +
+                "FROM documentos_empresa d JOIN empresas e ON e.empresa_id = d.empresa_id " +
+                "WHERE f_normalizar_busqueda(:texto) <% f_normalizar_busqueda(d.nombre_documento)");
+        if (empresaId != null) {
+            sql.append(" AND d.empresa_id = :empresaId");
+        }
+        // Orden por distancia para recorrer el índice GiST ya ordenado
+        sql.append(" ORDER BY f_normalizar_busqueda(:texto) <<-> f_normalizar_busqueda(d.nombre_documento)");
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addScalar("documento_empresa_id", UUID.class)
+                .addScalar("empresa_id", UUID.class)
+                .addScalar("razon_social", String.class)
+                .addScalar("nombre_documento", String.class)
+                .addScalar("fecha_vencimiento", LocalDate.class)
+                .addScalar("puntaje", Double.class);
+        query.setParameter("texto", texto);
+        if (empresaId != null) {
+            query.setParameter("empresaId", empresaId);
+        }
+        query.setMaxResults(limite);
+
+        List<Object[]> filas = query.getResultList();
+        List<DocumentoEmpresaBusquedaDTO> resultado = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            resultado.add(new DocumentoEmpresaBusquedaDTO(
+                    (UUID) fila[0], (UUID) fila[1], (String) fila[2],
+                    (String) fila[3], (LocalDate) fila[4], (Double) fila[5]));
+        }
+        return resultado;
+    }
+
+    // Una columna COUNT(*) FILTER por bucket: agregar un horizonte no agrega consultas
+    private String columnasVencimiento(String columnaFecha, int cantidadHorizontes) {
+        StringBuilder columnas = new StringBuilder("COUNT(*) FILTER (WHERE ")
+                .append(columnaFecha).append(" <= :fecha) AS vencidos");
+        for (int i = 0; i < cantidadHorizontes; i++) {
+            columnas.append(", COUNT(*) FILTER (WHERE ").append(columnaFecha)
+                    .append(" BETWEEN :fecha AND :fechaFin").append(i).append(") AS por_vencer_").append(i);
+        }
+        return columnas.toString();
+    }
+
+    private void asignarFechas(Query query, LocalDate fecha, List<Integer> horizontesDias) {
+        query.setParameter("fecha", fecha);
+        for (int i = 0; i < horizontesDias.size(); i++) {
+            query.setParameter("fechaFin" + i, fecha.plusDays(horizontesDias.get(i)));
+        }
+    }
+
+    // Lee [total, vencidos, horizonte0..n] a partir de la posición indicada
+    private ConteoVencimientosDTO leerConteo(Object[] fila, int inicio, List<Integer> horizontesDias) {
+        Map<Integer, Long> porVencer = new LinkedHashMap<>();
+        for (int i = 0; i < horizontesDias.size(); i++) {
+            porVencer.put(horizontesDias.get(i), ((Number) fila[inicio + 2 + i]).longValue());
+        }
+
+        return new ConteoVencimientosDTO(
+                ((Number) fila[inicio]).longValue(),
+                ((Number) fila[inicio + 1]).longValue(),
+                porVencer);
+    }
+}
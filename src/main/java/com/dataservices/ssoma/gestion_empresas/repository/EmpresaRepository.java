@@ -1,22 +1,34 @@
 package com.dataservices.ssoma.gestion_empresas.repository;
 
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaSugerenciaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EstadisticasEmpresasDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.SectorConteoDTO;
 import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface EmpresaRepository extends JpaRepository<Empresa, UUID> {
+public interface EmpresaRepository extends JpaRepository<Empresa, UUID>, EmpresaRepositoryCustom {
 
     Optional<Empresa> findByRuc(String ruc);
 
+    List<Empresa> findByRucIn(Collection<String> rucs);
+
     List<Empresa> findByRazonSocialContainingIgnoreCase(String razonSocial);
 
     Page<Empresa> findByRazonSocialContainingIgnoreCase(String razonSocial, Pageable pageable);
@@ -27,8 +39,9 @@ public interface EmpresaRepository extends JpaRepository<Empresa, UUID> {
 
     List<Empresa> findByScoreSeguridadBetween(Integer scoreMin, Integer scoreMax);
 
+    // CAST: con el parámetro en null PostgreSQL lo recibe sin tipo y LOWER falla (lower(bytea))
     @Query("SELECT e FROM Empresa e WHERE " +
-            "(:razonSocial IS NULL OR LOWER(e.razonSocial) LIKE LOWER(CONCAT('%', :razonSocial, '%'))) AND " +
+            "(CAST(:razonSocial AS String) IS NULL OR LOWER(e.razonSocial) LIKE LOWER(CONCAT('%', CAST(:razonSocial AS String), '%'))) AND " +
             "(:sector IS NULL OR e.sector = :sector) AND " +
             "(:scoreMin IS NULL OR e.scoreSeguridad >= :scoreMin) AND " +
             "(:scoreMax IS NULL OR e.scoreSeguridad <= :scoreMax)")
@@ -39,6 +52,14 @@ public interface EmpresaRepository extends JpaRepository<Empresa, UUID> {
             @Param("scoreMax") Integer scoreMax,
             Pageable pageable);
 
+    // Cursor JDBC para exportaciones: requiere una transacción abierta mientras se consume
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Empresa e ORDER BY e.empresaId")
+    Stream<Empresa> streamAll();
+
     @Query("SELECT AVG(e.scoreSeguridad) FROM Empresa e WHERE e.scoreSeguridad IS NOT NULL")
     Double findAverageScoreSeguridad();
 
@@ -51,12 +72,38 @@ public interface EmpresaRepository extends JpaRepository<Empresa, UUID> {
     @Query("SELECT COUNT(e) FROM Empresa e WHERE e.sector = :sector")
     Long countBySector(@Param("sector") String sector);
 
+    @Query("SELECT new com.dataservices.ssoma.gestion_empresas.dto.SectorConteoDTO(e.sector, COUNT(e)) " +
+            "FROM Empresa e WHERE e.sector IS NOT NULL GROUP BY e.sector ORDER BY e.sector")
+    List<SectorConteoDTO> countGroupBySector();
+
+    @Query("SELECT new com.dataservices.ssoma.gestion_empresas.dto.EstadisticasEmpresasDTO(" +
+            "COUNT(e), AVG(e.scoreSeguridad), " +
+            "SUM(CASE WHEN e.scoreSeguridad BETWEEN 80 AND 100 THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN e.scoreSeguridad BETWEEN 50 AND 79 THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN e.scoreSeguridad BETWEEN 0 AND 49 THEN 1L ELSE 0L END), " +
+            "COUNT(DISTINCT e.sector)) " +
+            "FROM Empresa e")
+    EstadisticasEmpresasDTO findEstadisticasGenerales();
+
     @Query("SELECT e FROM Empresa e ORDER BY e.scoreSeguridad DESC")
     List<Empresa> findTop10ByOrderByScoreSeguridadDesc(Pageable pageable);
 
     @Query("SELECT e FROM Empresa e WHERE e.scoreSeguridad < :scoreMinimo ORDER BY e.scoreSeguridad ASC")
     List<Empresa> findEmpresasConScoreBajo(@Param("scoreMinimo") Integer scoreMinimo);
 
+    // Carga del índice de autocompletado: solo las columnas que el índice necesita
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.dataservices.ssoma.gestion_empresas.dto.EmpresaSugerenciaDTO(" +
+            "e.empresaId, e.ruc, e.razonSocial) FROM Empresa e")
+    Stream<EmpresaSugerenciaDTO> streamSugerencias();
+
+    @Query("SELECT new com.dataservices.ssoma.gestion_empresas.dto.EmpresaSugerenciaDTO(" +
+            "e.empresaId, e.ruc, e.razonSocial) FROM Empresa e WHERE e.empresaId IN :empresaIds")
+    List<EmpresaSugerenciaDTO> findSugerenciasByEmpresaIdIn(@Param("empresaIds") Collection<UUID> empresaIds);
+
     boolean existsByRuc(String ruc);
 
     boolean existsByRucAndEmpresaIdNot(String ruc, UUID empresaId);
@@ -0,0 +1,33 @@
+package com.dataservices.ssoma.gestion_empresas.repository;
+
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaBusquedaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface EmpresaRepositoryCustom {
+
+    /**
+     * Búsqueda con filtros opcionales recorrida por keyset sobre (campoOrden, empresaId),
+     * sin OFFSET ni COUNT. Con {@code idCursor} null se devuelve la primera página.
+     */
+    List<Empresa> findByFiltrosConCursor(
+            String razonSocial, String sector, Integer scoreMin, Integer scoreMax,
+            String campoOrden, boolean descendente, Object valorCursor, UUID idCursor, int limite);
+
+    /**
+     * Búsqueda por similitud sobre la razón social (sin distinguir mayúsculas ni tildes),
+     * servida por el índice GiST de trigramas y ordenada por puntaje descendente.
+     */
+    List<EmpresaBusquedaDTO> buscarPorSimilitud(String texto, int limite);
+
+    /**
+     * Empresa con sus documentos en una sola sentencia (LEFT JOIN), ordenados por
+     * (campoOrden, documentoEmpresaId) y limitados a {@code limiteDocumentos}.
+     * {@code documentosTotal} trae el total sin límite, calculado en la misma consulta.
+     */
+    Optional<EmpresaDTO> findConDocumentos(UUID empresaId, String campoOrden, boolean descendente, int limiteDocumentos);
+}
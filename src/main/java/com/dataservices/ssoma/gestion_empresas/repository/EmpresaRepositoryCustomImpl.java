@@ -0,0 +1,172 @@
+package com.dataservices.ssoma.gestion_empresas.repository;
+
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaBusquedaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import com.dataservices.ssoma.gestion_empresas.util.CursorKeyset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class EmpresaRepositoryCustomImpl implements EmpresaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Empresa> findByFiltrosConCursor(
+            String razonSocial, String sector, Integer scoreMin, Integer scoreMax,
+            String campoOrden, boolean descendente, Object valorCursor, UUID idCursor, int limite) {
+
+        String campo = "e." + campoOrden;
+        String condicionCursor = idCursor == null ? null
+                : CursorKeyset.condicionJpql(campo, "e.empresaId", descendente, valorCursor == null);
+        List<Empresa> empresas = findByFiltrosConCondicion(razonSocial, sector, scoreMin, scoreMax,
+                campo, descendente, condicionCursor, valorCursor, idCursor, limite);
+
+        // La comparación de filas no alcanza a los nulos, que van al final: se completa la página con ellos
+        if (valorCursor != null && empresas.size() < limite) {
+            List<Empresa> pagina = new ArrayList<>(empresas);
+            pagina.addAll(findByFiltrosConCondicion(razonSocial, sector, scoreMin, scoreMax,
+                    campo, descendente, CursorKeyset.condicionNulos(campo), null, null, limite - empresas.size()));
+            return pagina;
+        }
+        return empresas;
+    }
+
+    private List<Empresa> findByFiltrosConCondicion(
+            String razonSocial, String sector, Integer scoreMin, Integer scoreMax,
+            String campo, boolean descendente, String condicionCursor, Object valorCursor, UUID idCursor,
+            int limite) {
+
+        StringBuilder jpql = new StringBuilder("SELECT e FROM Empresa e WHERE 1 = 1");
+        if (razonSocial != null) {
+            jpql.append(" AND LOWER(e.razonSocial) LIKE LOWER(CONCAT('%', :razonSocial, '%'))");
+        }
+        if (sector != null) {
+            jpql.append(" AND e.sector = :sector");
+        }
+        if (scoreMin != null) {
+            jpql.append(" AND e.scoreSeguridad >= :scoreMin");
+        }
+        if (scoreMax != null) {
+            jpql.append(" AND e.scoreSeguridad <= :scoreMax");
+        }
+        if (condicionCursor != null) {
+            jpql.append(" AND ").append(condicionCursor);
+        }
+        jpql.append(CursorKeyset.ordenJpql(campo, "e.empresaId", descendente));
+
+        TypedQuery<Empresa> query = entityManager.createQuery(jpql.toString(), Empresa.class);
+        if (razonSocial != null) {
+            query.setParameter("razonSocial", razonSocial);
+        }
+        if (sector != null) {
+            query.setParameter("sector", sector);
+        }
+        if (scoreMin != null) {
+            query.setParameter("scoreMin", scoreMin);
+        }
+        if (scoreMax != null) {
+            query.setParameter("scoreMax", scoreMax);
+        }
+        if (idCursor != null) {
+            query.setParameter("idCursor", idCursor);
+        }
+        if (valorCursor != null) {
+            query.setParameter("valorCursor", valorCursor);
+        }
+        query.setMaxResults(limite);
+
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<EmpresaBusquedaDTO> buscarPorSimilitud(String texto, int limite) {
+        // <% filtra y <<-> ordena por distancia (1 - word_similarity) con el mismo índice GiST,
+        // que entrega las filas ya ordenadas y se detiene al alcanzar el límite
+        String sql = "SELECT e.empresa_id AS empresa_id, e.ruc AS ruc, e.razon_social AS razon_social, " +
+                "e.sector AS sector, e.score_seguridad AS score_seguridad, " +
+                "word_similarity(f_normalizar_busqueda(:texto), f_normalizar_busqueda(e.razon_social)) AS puntaje " +
+                "FROM empresas e " +
+                "WHERE f_normalizar_busqueda(:texto) <% f_normalizar_busqueda(e.razon_social) " +
+                "ORDER BY f_normalizar_busqueda(:texto) <<-> f_normalizar_busqueda(e.razon_social)";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("empresa_id", UUID.class)
+                .addScalar("ruc", String.class)
+                .addScalar("razon_social", String.class)
+                .addScalar("sector", String.class)
+                .addScalar("score_seguridad", Integer.class)
+                .addScalar("puntaje", Double.class);
+        query.setParameter("texto", texto);
+        query.setMaxResults(limite);
+
+        List<Object[]> filas = query.getResultList();
+        List<EmpresaBusquedaDTO> resultado = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            resultado.add(new EmpresaBusquedaDTO(
+                    (UUID) fila[0], (String) fila[1], (String) fila[2],
+                    (String) fila[3], (Integer) fila[4], (Double) fila[5]));
+        }
+        return resultado;
+    }
+
+    @Override
+    public Optional<EmpresaDTO> findConDocumentos(
+            UUID empresaId, String campoOrden, boolean descendente, int limiteDocumentos) {
+
+        // Una fila por documento con las columnas de la empresa repetidas; una empresa sin documentos
+        // devuelve una sola fila con los campos del documento en null. COUNT OVER se evalúa antes del límite
+        String jpql = "SELECT e.empresaId, e.ruc, e.razonSocial, e.direccion, e.sector, e.scoreSeguridad, " +
+                "d.documentoEmpresaId, d.nombreDocumento, d.fechaVencimiento, d.documentoUrl, " +
+                "COUNT(d.documentoEmpresaId) OVER () " +
+                "FROM Empresa e LEFT JOIN e.documentos d " +
+                "WHERE e.empresaId = :empresaId" +
+                CursorKeyset.ordenJpql("d." + campoOrden, "d.documentoEmpresaId", descendente);
+
+        List<Object[]> filas = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("empresaId", empresaId)
+                .setMaxResults(limiteDocumentos)
+                .getResultList();
+        if (filas.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] primera = filas.get(0);
+        EmpresaDTO empresa = new EmpresaDTO();
+        empresa.setEmpresaId((UUID) primera[0]);
+        empresa.setRuc((String) primera[1]);
+        empresa.setRazonSocial((String) primera[2]);
+        empresa.setDireccion((String) primera[3]);
+        empresa.setSector((String) primera[4]);
+        empresa.setScoreSeguridad((Integer) primera[5]);
+        empresa.setDocumentosTotal((Long) primera[10]);
+
+        List<DocumentoEmpresaDTO> documentos = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            if (fila[6] == null) {
+                continue;
+            }
+            DocumentoEmpresaDTO documento = new DocumentoEmpresaDTO();
+            documento.setDocumentoEmpresaId((UUID) fila[6]);
+            documento.setEmpresaId(empresaId);
+            documento.setNombreDocumento((String) fila[7]);
+            documento.setFechaVencimiento((LocalDate) fila[8]);
+            documento.setDocumentoUrl((String) fila[9]);
+            documentos.add(documento);
+        }
+        empresa.setDocumentos(documentos);
+        return Optional.of(empresa);
+    }
+}
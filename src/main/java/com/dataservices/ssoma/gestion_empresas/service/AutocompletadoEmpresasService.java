@@ -0,0 +1,384 @@
+package com.dataservices.ssoma.gestion_empresas.service;
+
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaSugerenciaDTO;
+import com.dataservices.ssoma.gestion_empresas.event.EmpresaModificadaEvent;
+import com.dataservices.ssoma.gestion_empresas.repository.EmpresaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria para autocompletar empresas por razón social o RUC.
+ *
+ * <p>Mantiene arreglos ordenados de claves normalizadas (la razón social completa, la razón
+ * social desde cada palabra y el RUC) y resuelve cada prefijo con una búsqueda binaria. Los
+ * arreglos nunca se modifican: cada tanda de cambios produce un índice nuevo y se publica de
+ * forma atómica, de modo que las consultas no toman bloqueos. Los cambios se acumulan en un
+ * delta pequeño que se fusiona con la base cuando crece, así una escritura no reescribe
+ * todo el índice.
+ *
+ * <p>Las claves normalizadas son ASCII y se guardan como {@code byte[]}; las claves por palabra
+ * solo apuntan a una posición del nombre, sin copiar el texto.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutocompletadoEmpresasService {
+
+    public static final int LIMITE_MAXIMO = 20;
+
+    // Acotan la memoria por empresa: el nombre indexado se trunca y solo se indexan las primeras palabras
+    private static final int LONGITUD_MAXIMA_NOMBRE = 64;
+    private static final int PALABRAS_INDEXADAS = 4;
+    private static final int IDS_POR_CONSULTA = 1000;
+    // Claves modificadas que se acumulan fuera de la base antes de reescribirla
+    private static final int CAMBIOS_MAXIMOS_SIN_COMPACTAR = 20_000;
+
+    private final EmpresaRepository empresaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<UUID> pendientes = ConcurrentHashMap.newKeySet();
+
+    private volatile Indice indice = Indice.VACIO;
+
+    public List<EmpresaSugerenciaDTO> sugerir(String texto, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        byte[] consulta = clave(texto);
+        if (consulta.length == 0) {
+            return List.of();
+        }
+
+        // Primero el RUC, luego las razones sociales que empiezan con el texto y al final las que lo tienen en otra palabra
+        Indice actual = indice;
+        Set<Entrada> encontradas = new LinkedHashSet<>();
+        actual.rucs.recolectar(consulta, actual.retiradas, limite, encontradas);
+        actual.nombres.recolectar(consulta, actual.retiradas, limite, encontradas);
+        actual.palabras.recolectar(consulta, actual.retiradas, limite, encontradas);
+
+        return encontradas.stream()
+                .map(entrada -> new EmpresaSugerenciaDTO(entrada.empresaId, entrada.ruc, entrada.razonSocial))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            reconstruir();
+        } catch (RuntimeException ex) {
+            // La aplicación arranca igual; la siguiente reconstrucción programada vuelve a intentarlo
+            log.error("Error cargando el índice de autocompletado: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmpresaModificada(EmpresaModificadaEvent event) {
+        pendientes.addAll(event.getEmpresaIds());
+    }
+
+    @Scheduled(fixedDelayString = "${app.autocompletado.revision:PT1S}")
+    public synchronized void aplicarPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        // Se retiran antes de consultar: un cambio confirmado durante la consulta vuelve a quedar pendiente
+        List<UUID> empresaIds = new ArrayList<>(pendientes);
+        pendientes.removeAll(empresaIds);
+        long inicioAplicacion = System.nanoTime();
+        try {
+            List<Entrada> actualizadas = new ArrayList<>();
+            for (int inicio = 0; inicio < empresaIds.size(); inicio += IDS_POR_CONSULTA) {
+                List<UUID> bloque = empresaIds.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, empresaIds.size()));
+                empresaRepository.findSugerenciasByEmpresaIdIn(bloque)
+                        .forEach(fila -> actualizadas.add(Entrada.of(fila)));
+            }
+            // Las empresas que ya no están en la base de datos solo se retiran del índice
+            indice = indice.conCambios(new HashSet<>(empresaIds), actualizadas);
+            log.debug("Índice de autocompletado actualizado con {} empresas en {} ms",
+                    empresaIds.size(), (System.nanoTime() - inicioAplicacion) / 1_000_000);
+        } catch (RuntimeException ex) {
+            pendientes.addAll(empresaIds);
+            log.error("Error actualizando el índice de autocompletado: {}", ex.getMessage());
+        }
+    }
+
+    // Recoge también los cambios hechos en la base de datos fuera de este servicio
+    @Scheduled(fixedDelayString = "${app.autocompletado.reconstruccion:PT1H}",
+            initialDelayString = "${app.autocompletado.reconstruccion:PT1H}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        List<Entrada> entradas = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<EmpresaSugerenciaDTO> filas = empresaRepository.streamSugerencias()) {
+                filas.forEach(fila -> entradas.add(Entrada.of(fila)));
+            }
+        });
+        indice = Indice.construir(entradas);
+        log.info("Índice de autocompletado cargado con {} empresas en {} ms",
+                entradas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Minúsculas sin tildes; cualquier tramo de caracteres que no sean letras o dígitos ASCII
+     * queda como un único espacio.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        // Solo se descompone (NFD) cuando hay caracteres no ASCII, para descartar las tildes
+        String origen = texto.chars().allMatch(c -> c < 0x80) ? texto : Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder normalizado = new StringBuilder(origen.length());
+        boolean separar = false;
+        for (int i = 0; i < origen.length(); i++) {
+            char c = Character.toLowerCase(origen.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (separar && normalizado.length() > 0) {
+                    normalizado.append(' ');
+                }
+                separar = false;
+                normalizado.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                separar = true;
+            }
+        }
+        return normalizado.toString();
+    }
+
+    private static byte[] clave(String texto) {
+        String normalizado = normalizar(texto);
+        if (normalizado.length() > LONGITUD_MAXIMA_NOMBRE) {
+            normalizado = normalizado.substring(0, LONGITUD_MAXIMA_NOMBRE).trim();
+        }
+        return normalizado.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int primeraNoMenor(Clave[] claves, byte[] prefijo) {
+        int bajo = 0;
+        int alto = claves.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (claves[medio].compararCon(prefijo) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private static Clave[] ordenar(List<Clave> claves) {
+        Clave[] ordenadas = claves.toArray(new Clave[0]);
+        Arrays.parallelSort(ordenadas);
+        return ordenadas;
+    }
+
+    // Mezcla lineal de dos arreglos ordenados, descartando de "actuales" las claves de las empresas retiradas
+    private static Clave[] mezclar(Clave[] actuales, Set<UUID> retiradas, Clave[] agregadas) {
+        Clave[] resultado = new Clave[actuales.length + agregadas.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < actuales.length || j < agregadas.length) {
+            if (i < actuales.length && retiradas.contains(actuales[i].entrada.empresaId)) {
+                i++;
+            } else if (j >= agregadas.length
+                    || (i < actuales.length && actuales[i].compareTo(agregadas[j]) <= 0)) {
+                resultado[n++] = actuales[i++];
+            } else {
+                resultado[n++] = agregadas[j++];
+            }
+        }
+        return n == resultado.length ? resultado : Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Claves de un mismo tipo: una base grande que solo se reescribe al compactar y un delta
+     * pequeño con las empresas modificadas desde entonces.
+     */
+    private static final class Seccion {
+
+        static final Seccion VACIA = new Seccion(new Clave[0], new Clave[0]);
+
+        final Clave[] base;
+        final Clave[] delta;
+
+        Seccion(Clave[] base, Clave[] delta) {
+            this.base = base;
+            this.delta = delta;
+        }
+
+        void recolectar(byte[] prefijo, Set<UUID> retiradas, int limite, Set<Entrada> encontradas) {
+            int i = primeraNoMenor(base, prefijo);
+            int j = primeraNoMenor(delta, prefijo);
+            while (encontradas.size() < limite) {
+                boolean enBase = i < base.length && base[i].empiezaCon(prefijo);
+                boolean enDelta = j < delta.length && delta[j].empiezaCon(prefijo);
+                if (enBase && (!enDelta || base[i].compareTo(delta[j]) <= 0)) {
+                    Clave clave = base[i++];
+                    if (!retiradas.contains(clave.entrada.empresaId)) {
+                        encontradas.add(clave.entrada);
+                    }
+                } else if (enDelta) {
+                    encontradas.add(delta[j++].entrada);
+                } else {
+                    break;
+                }
+            }
+        }
+
+        Seccion conCambios(Set<UUID> empresaIds, Clave[] nuevas) {
+            return new Seccion(base, mezclar(delta, empresaIds, nuevas));
+        }
+
+        Seccion compactar(Set<UUID> retiradas) {
+            return new Seccion(mezclar(base, retiradas, delta), new Clave[0]);
+        }
+    }
+
+    private static final class Indice {
+
+        static final Indice VACIO = new Indice(Seccion.VACIA, Seccion.VACIA, Seccion.VACIA, Set.of());
+
+        final Seccion nombres;
+        final Seccion palabras;
+        final Seccion rucs;
+        // Empresas cuyas claves en la base ya no son válidas; las vigentes están en el delta
+        final Set<UUID> retiradas;
+
+        Indice(Seccion nombres, Seccion palabras, Seccion rucs, Set<UUID> retiradas) {
+            this.nombres = nombres;
+            this.palabras = palabras;
+            this.rucs = rucs;
+            this.retiradas = retiradas;
+        }
+
+        static Indice construir(List<Entrada> entradas) {
+            Clave[][] claves = clavesOrdenadas(entradas);
+            return new Indice(
+                    new Seccion(claves[0], new Clave[0]),
+                    new Seccion(claves[1], new Clave[0]),
+                    new Seccion(claves[2], new Clave[0]),
+                    Set.of());
+        }
+
+        Indice conCambios(Set<UUID> empresaIds, List<Entrada> actualizadas) {
+            Clave[][] claves = clavesOrdenadas(actualizadas);
+            Set<UUID> nuevasRetiradas = new HashSet<>(retiradas);
+            nuevasRetiradas.addAll(empresaIds);
+            Indice resultado = new Indice(
+                    nombres.conCambios(empresaIds, claves[0]),
+                    palabras.conCambios(empresaIds, claves[1]),
+                    rucs.conCambios(empresaIds, claves[2]),
+                    nuevasRetiradas);
+            return resultado.cambiosSinCompactar() > CAMBIOS_MAXIMOS_SIN_COMPACTAR ? resultado.compactar() : resultado;
+        }
+
+        private int cambiosSinCompactar() {
+            return retiradas.size() + nombres.delta.length + palabras.delta.length + rucs.delta.length;
+        }
+
+        private Indice compactar() {
+            return new Indice(
+                    nombres.compactar(retiradas),
+                    palabras.compactar(retiradas),
+                    rucs.compactar(retiradas),
+                    Set.of());
+        }
+
+        private static Clave[][] clavesOrdenadas(List<Entrada> entradas) {
+            List<Clave> nombres = new ArrayList<>();
+            List<Clave> palabras = new ArrayList<>();
+            List<Clave> rucs = new ArrayList<>();
+            for (Entrada entrada : entradas) {
+                entrada.agregarClaves(nombres, palabras, rucs);
+            }
+            return new Clave[][]{ordenar(nombres), ordenar(palabras), ordenar(rucs)};
+        }
+    }
+
+    private static final class Entrada {
+
+        final UUID empresaId;
+        final String ruc;
+        final String razonSocial;
+        final byte[] nombre;
+        final byte[] claveRuc;
+
+        private Entrada(UUID empresaId, String ruc, String razonSocial, byte[] nombre, byte[] claveRuc) {
+            this.empresaId = empresaId;
+            this.ruc = ruc;
+            this.razonSocial = razonSocial;
+            this.nombre = nombre;
+            this.claveRuc = claveRuc;
+        }
+
+        static Entrada of(EmpresaSugerenciaDTO fila) {
+            return new Entrada(fila.getEmpresaId(), fila.getRuc(), fila.getRazonSocial(),
+                    clave(fila.getRazonSocial()), clave(fila.getRuc()));
+        }
+
+        void agregarClaves(List<Clave> nombres, List<Clave> palabras, List<Clave> rucs) {
+            if (nombre.length > 0) {
+                nombres.add(new Clave(nombre, 0, this));
+                int indexadas = 1;
+                for (int i = 1; i < nombre.length && indexadas < PALABRAS_INDEXADAS; i++) {
+                    if (nombre[i - 1] == ' ') {
+                        palabras.add(new Clave(nombre, i, this));
+                        indexadas++;
+                    }
+                }
+            }
+            if (claveRuc.length > 0) {
+                rucs.add(new Clave(claveRuc, 0, this));
+            }
+        }
+    }
+
+    private static final class Clave implements Comparable<Clave> {
+
+        final byte[] texto;
+        final int inicio;
+        final Entrada entrada;
+
+        Clave(byte[] texto, int inicio, Entrada entrada) {
+            this.texto = texto;
+            this.inicio = inicio;
+            this.entrada = entrada;
+        }
+
+        boolean empiezaCon(byte[] prefijo) {
+            return texto.length - inicio >= prefijo.length
+                    && Arrays.equals(texto, inicio, inicio + prefijo.length, prefijo, 0, prefijo.length);
+        }
+
+        int compararCon(byte[] otro) {
+            return Arrays.compare(texto, inicio, texto.length, otro, 0, otro.length);
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int comparacion = Arrays.compare(texto, inicio, texto.length, otra.texto, otra.inicio, otra.texto.length);
+            return comparacion != 0 ? comparacion : entrada.empresaId.compareTo(otra.entrada.empresaId);
+        }
+    }
+}
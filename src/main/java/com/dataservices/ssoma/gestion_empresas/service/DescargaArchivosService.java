@@ -0,0 +1,195 @@
+package com.dataservices.ssoma.gestion_empresas.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Respuestas de descarga de archivos subidos, compartidas por la API y por /uploads/**.
+ * Valida las peticiones condicionales y, según {@code app.descarga.modo}, entrega el contenido:
+ * <ul>
+ *     <li>{@code servlet}: Spring MVC copia el archivo al flujo de salida (rangos incluidos).</li>
+ *     <li>{@code sendfile}: Tomcat lo envía con sendfile desde el poller, sin pasar por la memoria de la JVM
+ *     ni retener el hilo de la petición. Los archivos pequeños, varios rangos o un rango inválido
+ *     siguen el camino servlet.</li>
+ *     <li>{@code x-accel-redirect} / {@code x-sendfile}: la respuesta solo lleva la cabecera y el proxy
+ *     inverso (nginx, Apache o lighttpd) lee el archivo del disco.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DescargaArchivosService {
+
+    // Atributos de petición con los que Tomcat anuncia y recibe un envío por sendfile
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private static final String X_ACCEL_REDIRECT = "X-Accel-Redirect";
+    private static final String X_SENDFILE = "X-Sendfile";
+
+    public enum ModoDescarga {
+        SERVLET, SENDFILE, X_ACCEL_REDIRECT, X_SENDFILE
+    }
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${app.descarga.modo:servlet}")
+    private ModoDescarga modo;
+
+    // Por debajo de este tamaño la copia cuesta menos que preparar el sendfile
+    @Value("${app.descarga.sendfile-minimo:48KB}")
+    private DataSize sendfileMinimo;
+
+    // Location interna de nginx que apunta al directorio de subidas
+    @Value("${app.descarga.ubicacion-interna:/archivos-internos}")
+    private String ubicacionInterna;
+
+    /**
+     * Responde la descarga de {@code fileName}. Devuelve null cuando la respuesta ya quedó completa
+     * (304 o 412 de una petición condicional), que Spring MVC interpreta como petición atendida.
+     *
+     * @param contentDisposition cabecera Content-Disposition, o null para no enviarla
+     * @param cacheControl       cabecera Cache-Control, o null para no enviarla
+     */
+    public ResponseEntity<Resource> responder(String fileName, HttpServletRequest request,
+                                              HttpServletResponse response, String contentDisposition,
+                                              CacheControl cacheControl) throws IOException {
+        FileStorageService.ArchivoDescargable archivo = fileStorageService.describirArchivo(fileName);
+        if (archivo == null || !archivo.getRuta().startsWith(fileStorageService.getFileStorageLocation())) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(archivo.getEtag(), archivo.getUltimaModificacion().toEpochMilli())) {
+            return null;
+        }
+
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.setContentType(archivo.getTipoContenido());
+        cabeceras.setETag(archivo.getEtag());
+        cabeceras.setLastModified(archivo.getUltimaModificacion());
+        cabeceras.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (contentDisposition != null) {
+            cabeceras.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+        if (cacheControl != null) {
+            cabeceras.setCacheControl(cacheControl);
+        }
+
+        switch (modo) {
+            case X_ACCEL_REDIRECT:
+                cabeceras.set(X_ACCEL_REDIRECT, ubicacionInterna + "/" + rutaRelativa(archivo.getRuta()));
+                return ResponseEntity.ok().headers(cabeceras).build();
+            case X_SENDFILE:
+                cabeceras.set(X_SENDFILE, archivo.getRuta().toString());
+                return ResponseEntity.ok().headers(cabeceras).build();
+            default:
+                break;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean rangoVigente = ifRange == null || rangoVigente(ifRange, archivo);
+
+        if (modo == ModoDescarga.SENDFILE && admiteSendfile(request, archivo)) {
+            ResponseEntity<Resource> envio = sendfile(request, cabeceras, archivo, rangoVigente);
+            if (envio != null) {
+                return envio;
+            }
+        }
+
+        if (!rangoVigente) {
+            // Un InputStreamResource no se fragmenta en rangos
+            cabeceras.setContentLength(archivo.getTamano());
+            return ResponseEntity.ok()
+                    .headers(cabeceras)
+                    .body(new InputStreamResource(Files.newInputStream(archivo.getRuta())));
+        }
+        // Con un Resource como cuerpo Spring MVC atiende Range: 206, multipart/byteranges o 416
+        return ResponseEntity.ok().headers(cabeceras).body(new FileSystemResource(archivo.getRuta()));
+    }
+
+    private boolean admiteSendfile(HttpServletRequest request, FileStorageService.ArchivoDescargable archivo) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))
+                && HttpMethod.GET.matches(request.getMethod())
+                && archivo.getTamano() >= sendfileMinimo.toBytes();
+    }
+
+    // Sin cuerpo: Tomcat ve los atributos al terminar la petición y envía [inicio, fin) del archivo.
+    // Devuelve null si el rango pedido lo tiene que resolver el camino servlet
+    private ResponseEntity<Resource> sendfile(HttpServletRequest request, HttpHeaders cabeceras,
+                                              FileStorageService.ArchivoDescargable archivo, boolean rangoVigente) {
+        long tamano = archivo.getTamano();
+        long inicio = 0;
+        long fin = tamano;
+        HttpStatus estado = HttpStatus.OK;
+
+        String rango = rangoVigente ? request.getHeader(HttpHeaders.RANGE) : null;
+        if (rango != null) {
+            try {
+                List<HttpRange> rangos = HttpRange.parseRanges(rango);
+                // Spring no rechaza un inicio más allá del final
+                if (rangos.size() != 1 || rangos.get(0).getRangeStart(tamano) >= tamano) {
+                    return null;
+                }
+                inicio = rangos.get(0).getRangeStart(tamano);
+                fin = rangos.get(0).getRangeEnd(tamano) + 1;
+            } catch (IllegalArgumentException ex) {
+                // Rango inválido o fuera del archivo: el camino servlet responde 416
+                return null;
+            }
+            cabeceras.set(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + (fin - 1) + "/" + tamano);
+            estado = HttpStatus.PARTIAL_CONTENT;
+        }
+
+        request.setAttribute(SENDFILE_ARCHIVO, archivo.getRuta().toString());
+        request.setAttribute(SENDFILE_INICIO, inicio);
+        request.setAttribute(SENDFILE_FIN, fin);
+        log.debug("Enviando {} por sendfile [{}, {})", archivo.getRuta(), inicio, fin);
+
+        cabeceras.setContentLength(fin - inicio);
+        return ResponseEntity.status(estado).headers(cabeceras).build();
+    }
+
+    // If-Range trae un ETag fuerte o la fecha Last-Modified que el cliente recibió con la primera parte
+    private static boolean rangoVigente(String ifRange, FileStorageService.ArchivoDescargable archivo) {
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(archivo.getEtag());
+        }
+        try {
+            long fecha = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return fecha == archivo.getUltimaModificacion().getEpochSecond();
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    private String rutaRelativa(Path archivo) {
+        Path relativa = fileStorageService.getFileStorageLocation().relativize(archivo);
+        return relativa.toString().replace(relativa.getFileSystem().getSeparator(), "/");
+    }
+}
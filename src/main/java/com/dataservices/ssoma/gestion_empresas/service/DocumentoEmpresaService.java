@@ -1,9 +1,18 @@
 package com.dataservices.ssoma.gestion_empresas.service;
 
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaBusquedaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaListadoDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ResumenVencimientosEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.util.FiltroVencimiento;
+import com.dataservices.ssoma.gestion_empresas.util.FormatoExportacion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +22,8 @@ public interface DocumentoEmpresaService {
 
     DocumentoEmpresaDTO crearDocumento(DocumentoEmpresaDTO documentoDTO);
 
+    ResultadoLoteDTO crearDocumentosEnLote(List<DocumentoEmpresaDTO> documentos);
+
     DocumentoEmpresaDTO actualizarDocumento(UUID documentoId, DocumentoEmpresaDTO documentoDTO);
 
     DocumentoEmpresaDTO obtenerDocumentoPorId(UUID documentoId);
@@ -21,6 +32,13 @@ public interface DocumentoEmpresaService {
 
     Page<DocumentoEmpresaDTO> obtenerDocumentosPorEmpresa(UUID empresaId, Pageable pageable);
 
+    PaginaCursor<DocumentoEmpresaDTO> obtenerDocumentosPorEmpresaConCursor(
+            UUID empresaId, String sortBy, String sortDir, String cursor, int size);
+
+    PaginaCursor<DocumentoEmpresaListadoDTO> listarDocumentos(
+            List<UUID> empresaIds, LocalDate fechaDesde, LocalDate fechaHasta,
+            String nombreDocumento, String cursor, int size);
+
     List<DocumentoEmpresaDTO> obtenerDocumentosPorFecha(LocalDate fecha);
 
     List<DocumentoEmpresaDTO> obtenerDocumentosPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin);
@@ -49,8 +67,13 @@ public interface DocumentoEmpresaService {
 
     List<DocumentoEmpresaDTO> buscarDocumentosPorNombreYEmpresa(UUID empresaId, String nombreDocumento);
 
+    List<DocumentoEmpresaBusquedaDTO> buscarDocumentosPorSimilitud(String texto, UUID empresaId, int limite);
+
     void eliminarDocumento(UUID documentoId);
 
+    void exportarDocumentos(FormatoExportacion formato, FiltroVencimiento filtro,
+                            LocalDate fecha, int diasAnticipacion, OutputStream salida) throws IOException;
+
     // Métodos de estadísticas y consulta
     Long contarDocumentosPorEmpresa(UUID empresaId);
 
@@ -77,5 +100,12 @@ public interface DocumentoEmpresaService {
 
     Map<String, Long> obtenerResumenVencimientos();
 
+    Map<String, Long> obtenerResumenVencimientos(List<Integer> horizontesDias);
+
     Map<String, Long> obtenerResumenVencimientosPorEmpresa(UUID empresaId);
+
+    Map<String, Long> obtenerResumenVencimientosPorEmpresa(UUID empresaId, List<Integer> horizontesDias);
+
+    PaginaCursor<ResumenVencimientosEmpresaDTO> obtenerResumenVencimientosPorEmpresas(
+            List<UUID> empresaIds, List<Integer> horizontesDias, String cursor, int size);
 }
@@ -0,0 +1,43 @@
+package com.dataservices.ssoma.gestion_empresas.service;
+
+import com.dataservices.ssoma.gestion_empresas.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmpresaCacheService {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Invalida la empresa y todos los RUC indicados (por ejemplo, el anterior y el nuevo
+     * cuando el RUC cambia). Los valores nulos se ignoran.
+     */
+    public void invalidarEmpresa(UUID empresaId, String... rucs) {
+        log.debug("Invalidando cache de empresa {} - RUCs: {}", empresaId, (Object) rucs);
+
+        if (empresaId != null) {
+            evict(CacheConfig.EMPRESAS_POR_ID, empresaId);
+        }
+        for (String ruc : rucs) {
+            if (ruc != null) {
+                evict(CacheConfig.EMPRESAS_POR_RUC, ruc);
+                evict(CacheConfig.EXISTE_RUC, ruc);
+            }
+        }
+    }
+
+    private void evict(String nombreCache, Object clave) {
+        Cache cache = cacheManager.getCache(nombreCache);
+        if (cache != null) {
+            cache.evict(clave);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.dataservices.ssoma.gestion_empresas.service;
 
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaBusquedaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.util.FormatoExportacion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -12,10 +18,18 @@ public interface EmpresaService {
 
     EmpresaDTO crearEmpresa(EmpresaDTO empresaDTO);
 
+    ResultadoLoteDTO guardarEmpresasEnLote(List<EmpresaDTO> empresas);
+
     EmpresaDTO actualizarEmpresa(UUID empresaId, EmpresaDTO empresaDTO);
 
     EmpresaDTO obtenerEmpresaPorId(UUID empresaId);
 
+    /**
+     * Igual que {@link #obtenerEmpresaPorId} con otro orden o límite de documentos; los parámetros
+     * nulos toman el valor por defecto (fecha de vencimiento ascendente, 500 documentos).
+     */
+    EmpresaDTO obtenerEmpresaConDocumentos(UUID empresaId, String sortBy, String sortDir, Integer limite);
+
     EmpresaDTO obtenerEmpresaPorRuc(String ruc);
 
     List<EmpresaDTO> obtenerTodasLasEmpresas();
@@ -24,6 +38,8 @@ public interface EmpresaService {
 
     List<EmpresaDTO> buscarEmpresasPorRazonSocial(String razonSocial);
 
+    List<EmpresaBusquedaDTO> buscarEmpresasPorSimilitud(String texto, int limite);
+
     Page<EmpresaDTO> buscarEmpresasPorRazonSocial(String razonSocial, Pageable pageable);
 
     List<EmpresaDTO> obtenerEmpresasPorSector(String sector);
@@ -35,8 +51,14 @@ public interface EmpresaService {
     Page<EmpresaDTO> buscarEmpresasConFiltros(
             String razonSocial, String sector, Integer scoreMin, Integer scoreMax, Pageable pageable);
 
+    PaginaCursor<EmpresaDTO> buscarEmpresasConCursor(
+            String razonSocial, String sector, Integer scoreMin, Integer scoreMax,
+            String sortBy, String sortDir, String cursor, int size);
+
     void eliminarEmpresa(UUID empresaId);
 
+    void exportarEmpresas(FormatoExportacion formato, OutputStream salida) throws IOException;
+
     // Métodos de estadísticas y consulta
     Double obtenerScorePromedioSeguridad();
 
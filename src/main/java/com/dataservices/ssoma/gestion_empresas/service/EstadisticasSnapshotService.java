@@ -0,0 +1,161 @@
+package com.dataservices.ssoma.gestion_empresas.service;
+
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.SnapshotEstadisticaDTO;
+import com.dataservices.ssoma.gestion_empresas.event.DocumentoEmpresaModificadoEvent;
+import com.dataservices.ssoma.gestion_empresas.event.EmpresaModificadaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantiene en memoria las estadísticas de los dashboards. Las mutaciones solo marcan la
+ * sección afectada como pendiente; la revisión periódica la recalcula, de modo que una
+ * ráfaga de cambios produce un único recálculo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasSnapshotService {
+
+    private final EmpresaService empresaService;
+    private final DocumentoEmpresaService documentoService;
+
+    private final AtomicBoolean empresasPendientes = new AtomicBoolean(true);
+    private final AtomicBoolean documentosPendientes = new AtomicBoolean(true);
+
+    private volatile SnapshotEstadisticaDTO<List<String>> sectores;
+    private volatile SnapshotEstadisticaDTO<Map<String, Object>> estadisticasEmpresas;
+    private volatile SnapshotEstadisticaDTO<Double> scorePromedio;
+    private volatile SnapshotEstadisticaDTO<List<EmpresaDTO>> topScore;
+    private volatile SnapshotEstadisticaDTO<Map<String, Object>> estadisticasDocumentos;
+    private volatile LocalDate fechaEstadisticasDocumentos;
+
+    public SnapshotEstadisticaDTO<List<String>> obtenerSectores() {
+        if (sectores == null) {
+            inicializarEmpresas();
+        }
+        return sectores;
+    }
+
+    public SnapshotEstadisticaDTO<Map<String, Object>> obtenerEstadisticasEmpresas() {
+        if (estadisticasEmpresas == null) {
+            inicializarEmpresas();
+        }
+        return estadisticasEmpresas;
+    }
+
+    public SnapshotEstadisticaDTO<Double> obtenerScorePromedio() {
+        if (scorePromedio == null) {
+            inicializarEmpresas();
+        }
+        return scorePromedio;
+    }
+
+    public SnapshotEstadisticaDTO<List<EmpresaDTO>> obtenerTopScore() {
+        if (topScore == null) {
+            inicializarEmpresas();
+        }
+        return topScore;
+    }
+
+    public SnapshotEstadisticaDTO<Map<String, Object>> obtenerEstadisticasDocumentos() {
+        if (estadisticasDocumentos == null) {
+            inicializarDocumentos();
+        }
+        return estadisticasDocumentos;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmpresaModificada(EmpresaModificadaEvent event) {
+        empresasPendientes.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentoModificado(DocumentoEmpresaModificadoEvent event) {
+        documentosPendientes.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.estadisticas.revision:PT5S}")
+    public void refrescarPendientes() {
+        if (empresasPendientes.get()) {
+            refrescarEmpresas();
+        }
+        // Los conteos de vencimiento dependen de la fecha actual
+        if (documentosPendientes.get() || !LocalDate.now().equals(fechaEstadisticasDocumentos)) {
+            refrescarDocumentos();
+        }
+    }
+
+    // Recoge también los cambios hechos en la base de datos fuera de este servicio
+    @Scheduled(fixedDelayString = "${app.estadisticas.refresco-completo:PT5M}",
+            initialDelayString = "${app.estadisticas.refresco-completo:PT5M}")
+    public void refrescarTodo() {
+        empresasPendientes.set(true);
+        documentosPendientes.set(true);
+        refrescarPendientes();
+    }
+
+    // Evita que varias peticiones concurrentes calculen el primer snapshot a la vez
+    private synchronized void inicializarEmpresas() {
+        if (topScore == null) {
+            refrescarEmpresas();
+        }
+    }
+
+    private synchronized void inicializarDocumentos() {
+        if (estadisticasDocumentos == null) {
+            refrescarDocumentos();
+        }
+    }
+
+    private synchronized void refrescarEmpresas() {
+        // Se limpia antes de leer para no perder cambios que lleguen durante el recálculo
+        empresasPendientes.set(false);
+        try {
+            Instant ahora = Instant.now();
+            List<String> nuevosSectores = List.copyOf(empresaService.obtenerSectoresDisponibles());
+            Map<String, Object> nuevasEstadisticas = Collections.unmodifiableMap(
+                    new LinkedHashMap<>(empresaService.obtenerEstadisticasGenerales()));
+            Double nuevoPromedio = empresaService.obtenerScorePromedioSeguridad();
+            List<EmpresaDTO> nuevoTop = List.copyOf(empresaService.obtenerTop10EmpresasPorScore());
+
+            sectores = new SnapshotEstadisticaDTO<>(nuevosSectores, ahora);
+            estadisticasEmpresas = new SnapshotEstadisticaDTO<>(nuevasEstadisticas, ahora);
+            scorePromedio = new SnapshotEstadisticaDTO<>(nuevoPromedio, ahora);
+            topScore = new SnapshotEstadisticaDTO<>(nuevoTop, ahora);
+            log.debug("Snapshot de estadísticas de empresas actualizado");
+        } catch (RuntimeException ex) {
+            empresasPendientes.set(true);
+            log.error("Error actualizando estadísticas de empresas: {}", ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private synchronized void refrescarDocumentos() {
+        documentosPendientes.set(false);
+        try {
+            LocalDate hoy = LocalDate.now();
+            Map<String, Object> nuevasEstadisticas = Collections.unmodifiableMap(
+                    new LinkedHashMap<>(documentoService.obtenerEstadisticasDocumentos()));
+
+            estadisticasDocumentos = new SnapshotEstadisticaDTO<>(nuevasEstadisticas, Instant.now());
+            fechaEstadisticasDocumentos = hoy;
+            log.debug("Snapshot de estadísticas de documentos actualizado");
+        } catch (RuntimeException ex) {
+            documentosPendientes.set(true);
+            log.error("Error actualizando estadísticas de documentos: {}", ex.getMessage());
+            throw ex;
+        }
+    }
+}
@@ -1,28 +1,103 @@
 package com.dataservices.ssoma.gestion_empresas.service;
 
+import com.dataservices.ssoma.gestion_empresas.dto.ArchivoDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.event.ReferenciasArchivoLiberadasEvent;
+import com.dataservices.ssoma.gestion_empresas.exception.ArchivoDemasiadoGrandeException;
+import com.dataservices.ssoma.gestion_empresas.repository.DocumentoEmpresaRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class FileStorageService {
 
+    public static final String PREFIJO_TEMPORAL = ".subida-";
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private static final int TAMANO_MAXIMO_LISTADO = 1000;
+
+    // Archivos deduplicados: se publican como <sha256>.<ext> y se guardan una vez en sha256/ab/cd/<sha256>
+    private static final String DIRECTORIO_CONTENIDO = "sha256";
+    private static final Pattern NOMBRE_CONTENIDO = Pattern.compile("([0-9a-f]{64})(?:\\.[A-Za-z0-9]{1,16})?");
+    private static final Pattern URL_CONTENIDO = Pattern.compile("/archivos/download/([0-9a-f]{64})");
+    // Un contenido recién subido o repetido todavía no figura en el documento que lo va a referenciar
+    private static final Duration GRACIA_LIBERACION = Duration.ofMinutes(10);
+
+    private static final int MAXIMO_TIPOS_CONTENIDO = 10_000;
+
+    // Publicar y liberar un mismo contenido no pueden intercalarse: se serializan por hash
+    private static final int BLOQUEOS_CONTENIDO = 64;
+
+    private final DocumentoEmpresaRepository documentoRepository;
+
+    // El tipo de un nombre no cambia: se detecta en la primera descarga y se reutiliza
+    private final Cache<String, MediaType> tiposContenido = Caffeine.newBuilder()
+            .maximumSize(MAXIMO_TIPOS_CONTENIDO)
+            .build();
+
+    // Contenidos repetidos hace menos de GRACIA_LIBERACION. La fecha del archivo no se toca al repetirlo
+    // para que Last-Modified no cambie con bytes idénticos; un contenido nuevo cuenta por esa fecha
+    private final Cache<String, Boolean> subidasRecientes = Caffeine.newBuilder()
+            .expireAfterWrite(GRACIA_LIBERACION)
+            .build();
+
+    private final Object[] bloqueosContenido = crearBloqueos();
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    @Value("${app.upload.tamano-maximo:10MB}")
+    private DataSize tamanoMaximo;
+
+    @Value("${app.upload.deduplicar:true}")
+    private boolean deduplicar;
+
     private Path fileStorageLocation;
 
     @PostConstruct
@@ -42,48 +117,394 @@ public class FileStorageService {
             throw new IllegalArgumentException("El archivo está vacío");
         }
 
-        // Obtener información del archivo
-        String originalFileName = file.getOriginalFilename();
-        String extension = FilenameUtils.getExtension(originalFileName);
+        try (InputStream contenido = file.getInputStream()) {
+            return storeStream(contenido, file.getOriginalFilename()).getFileName();
+        }
+    }
 
-        // Crear nombre único para el archivo
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
-        String fileName = timestamp + "_" + uniqueId + "." + extension;
+    /**
+     * Escribe el contenido en el directorio de destino a medida que llega, sin copia intermedia.
+     * Corta la escritura en cuanto se supera el tamaño máximo y publica el archivo con un
+     * renombrado atómico, así que nunca queda visible un archivo a medio escribir.
+     * Con deduplicación el nombre es el SHA-256 del contenido, calculado durante la misma escritura,
+     * y un contenido ya almacenado no se vuelve a guardar.
+     */
+    public ArchivoAlmacenado storeStream(InputStream contenido, String originalFileName) throws IOException {
+        String extension = FilenameUtils.getExtension(originalFileName);
 
+        // El temporal va en el mismo directorio para que el renombrado no cruce sistemas de archivos
+        Path temporal = Files.createTempFile(fileStorageLocation, PREFIJO_TEMPORAL, ".tmp");
+        boolean publicado = false;
         try {
+            MessageDigest digest = deduplicar ? sha256() : null;
+            long tamano = escribir(contenido, temporal, digest);
+            if (tamano == 0) {
+                throw new IllegalArgumentException("El archivo está vacío");
+            }
+
+            if (digest != null) {
+                String hash = HexFormat.of().formatHex(digest.digest());
+                String fileName = NOMBRE_CONTENIDO.matcher(hash + "." + extension).matches()
+                        ? hash + "." + extension : hash;
+                publicarContenido(temporal, hash);
+                publicado = true;
+
+                log.info("Archivo almacenado exitosamente: {} -> {} ({} bytes)", originalFileName, fileName, tamano);
+                return new ArchivoAlmacenado(fileName, tamano);
+            }
+
+            String fileName = generarNombre(extension);
             // Verificar que el nombre no contiene caracteres peligrosos
             if (fileName.contains("..")) {
                 throw new RuntimeException("El nombre del archivo contiene secuencia de ruta inválida: " + fileName);
             }
 
-            // Copiar archivo al directorio de destino
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            Path targetLocation = rutaFragmentada(fileName);
+            Files.createDirectories(targetLocation.getParent());
+            Files.move(temporal, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            publicado = true;
 
-            log.info("Archivo almacenado exitosamente: {} -> {}", originalFileName, fileName);
-            return fileName;
+            log.info("Archivo almacenado exitosamente: {} -> {} ({} bytes)", originalFileName, fileName, tamano);
+            return new ArchivoAlmacenado(fileName, tamano);
+        } finally {
+            if (!publicado) {
+                Files.deleteIfExists(temporal);
+            }
+        }
+    }
 
-        } catch (IOException ex) {
-            log.error("Error almacenando archivo {}: {}", fileName, ex.getMessage());
-            throw new RuntimeException("No se pudo almacenar el archivo " + fileName, ex);
+    private void publicarContenido(Path temporal, String hash) throws IOException {
+        Path blob = rutaContenido(hash);
+        synchronized (bloqueo(hash)) {
+            if (Files.exists(blob)) {
+                // Ya almacenado: se descarta la copia y se abre la gracia de liberación.
+                // Con el bloqueo tomado ninguna liberación lo puede borrar entre la comprobación y el registro
+                subidasRecientes.put(hash, Boolean.TRUE);
+                Files.delete(temporal);
+                log.debug("Contenido {} ya almacenado; se reutiliza", hash);
+                return;
+            }
+            Files.createDirectories(blob.getParent());
+            Files.move(temporal, blob, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // Un único buffer en el heap: el InputStream lee directo en su arreglo y el digest y el canal
+    // lo usan sin copias intermedias
+    private long escribir(InputStream contenido, Path destino, MessageDigest digest) throws IOException {
+        long limite = tamanoMaximo.toBytes();
+        long total = 0;
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER);
+            int leidos;
+            while ((leidos = contenido.read(buffer.array(), 0, buffer.capacity())) != -1) {
+                total += leidos;
+                if (total > limite) {
+                    throw new ArchivoDemasiadoGrandeException(
+                            "El archivo es muy grande. Máximo " + tamanoMaximo.toMegabytes() + "MB");
+                }
+                if (digest != null) {
+                    digest.update(buffer.array(), 0, leidos);
+                }
+                buffer.limit(leidos);
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                buffer.clear();
+            }
         }
+        return total;
+    }
+
+    private String generarNombre(String extension) {
+        // Crear nombre único para el archivo
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        return timestamp + "_" + uniqueId + "." + extension;
     }
 
     public Path loadFileAsPath(String fileName) {
-        return fileStorageLocation.resolve(fileName).normalize();
+        Matcher contenido = NOMBRE_CONTENIDO.matcher(fileName);
+        if (contenido.matches()) {
+            return rutaContenido(contenido.group(1));
+        }
+        Path fragmentada = rutaFragmentada(fileName);
+        if (Files.exists(fragmentada)) {
+            return fragmentada;
+        }
+        Path plana = fileStorageLocation.resolve(fileName).normalize();
+        // Si la migración lo movió entre las dos comprobaciones, ya está en la ruta fragmentada
+        return Files.exists(plana) ? plana : fragmentada;
+    }
+
+    /**
+     * Datos para servir la descarga de un archivo, o null si no existe. El ETag de un archivo deduplicado
+     * es su SHA-256; el de los demás combina fecha de modificación y tamaño, que cambian si se reemplaza.
+     */
+    public ArchivoDescargable describirArchivo(String fileName) throws IOException {
+        Path archivo = loadFileAsPath(fileName);
+        BasicFileAttributes atributos;
+        try {
+            atributos = Files.readAttributes(archivo, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        if (!atributos.isRegularFile()) {
+            return null;
+        }
+
+        Instant ultimaModificacion = atributos.lastModifiedTime().toInstant();
+        Matcher contenido = NOMBRE_CONTENIDO.matcher(fileName);
+        String etag = contenido.matches()
+                ? contenido.group(1)
+                : Long.toHexString(ultimaModificacion.toEpochMilli()) + "-" + Long.toHexString(atributos.size());
+
+        return new ArchivoDescargable(archivo, atributos.size(), ultimaModificacion, "\"" + etag + "\"",
+                tiposContenido.get(fileName, nombre -> detectarTipo(nombre, archivo)));
     }
 
+    private static MediaType detectarTipo(String fileName, Path archivo) {
+        try {
+            String tipo = Files.probeContentType(archivo);
+            if (tipo != null) {
+                return MediaType.parseMediaType(tipo);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            log.debug("No se pudo detectar el tipo de {}: {}", fileName, ex.getMessage());
+        }
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * Un archivo deduplicado solo se borra del disco cuando ningún documento lo referencia;
+     * si otros documentos lo usan se da por eliminado para quien lo pidió y se conserva.
+     */
     public boolean deleteFile(String fileName) {
         try {
-            Path filePath = fileStorageLocation.resolve(fileName).normalize();
-            return Files.deleteIfExists(filePath);
+            Matcher contenido = NOMBRE_CONTENIDO.matcher(fileName);
+            if (contenido.matches()) {
+                String hash = contenido.group(1);
+                Path blob = rutaContenido(hash);
+                synchronized (bloqueo(hash)) {
+                    long referencias = documentoRepository.contarReferenciasArchivo(hash);
+                    if (referencias > 0) {
+                        log.info("Archivo {} conservado: lo referencian {} documentos", fileName, referencias);
+                        return Files.exists(blob);
+                    }
+                    if (Files.exists(blob) && enGracia(hash, blob)) {
+                        // Una subida reciente del mismo contenido lo va a referenciar
+                        log.info("Archivo {} conservado: dentro del período de gracia", fileName);
+                        return true;
+                    }
+                    return Files.deleteIfExists(blob);
+                }
+            }
+
+            return Files.deleteIfExists(rutaFragmentada(fileName))
+                    || Files.deleteIfExists(fileStorageLocation.resolve(fileName).normalize());
         } catch (IOException ex) {
             log.error("Error eliminando archivo {}: {}", fileName, ex.getMessage());
             return false;
         }
     }
 
+    // Después del commit, para contar referencias sobre los documentos ya modificados
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenciasLiberadas(ReferenciasArchivoLiberadasEvent event) {
+        event.getDocumentoUrls().stream()
+                .map(URL_CONTENIDO::matcher)
+                .filter(Matcher::find)
+                .map(contenido -> contenido.group(1))
+                .distinct()
+                .forEach(this::liberarSiHuerfano);
+    }
+
+    private void liberarSiHuerfano(String hash) {
+        try {
+            Path blob = rutaContenido(hash);
+            synchronized (bloqueo(hash)) {
+                if (!Files.exists(blob) || documentoRepository.contarReferenciasArchivo(hash) > 0) {
+                    return;
+                }
+                if (enGracia(hash, blob)) {
+                    log.debug("Contenido {} sin referencias pero dentro del período de gracia; se conserva", hash);
+                    return;
+                }
+                Files.deleteIfExists(blob);
+            }
+            log.info("Contenido {} eliminado: ningún documento lo referencia", hash);
+        } catch (IOException ex) {
+            log.error("Error liberando contenido {}: {}", hash, ex.getMessage());
+        }
+    }
+
+    private boolean enGracia(String hash, Path blob) throws IOException {
+        if (subidasRecientes.getIfPresent(hash) != null) {
+            return true;
+        }
+        Instant limite = Instant.now().minus(GRACIA_LIBERACION);
+        return Files.getLastModifiedTime(blob).toInstant().isAfter(limite);
+    }
+
+    private Object bloqueo(String hash) {
+        return bloqueosContenido[Math.floorMod(hash.hashCode(), BLOQUEOS_CONTENIDO)];
+    }
+
+    private static Object[] crearBloqueos() {
+        Object[] bloqueos = new Object[BLOQUEOS_CONTENIDO];
+        for (int i = 0; i < bloqueos.length; i++) {
+            bloqueos[i] = new Object();
+        }
+        return bloqueos;
+    }
+
+    /**
+     * Mueve un archivo de la raíz a su ruta fragmentada. Devuelve false si ya no estaba.
+     */
+    boolean migrarArchivoPlano(Path plano) throws IOException {
+        Path destino = rutaFragmentada(plano.getFileName().toString());
+        Files.createDirectories(destino.getParent());
+        try {
+            Files.move(plano, destino, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (NoSuchFileException ex) {
+            // Eliminado mientras se recorría la raíz
+            return false;
+        }
+    }
+
+    boolean esArchivoPlano(Path entrada) {
+        return !entrada.getFileName().toString().startsWith(PREFIJO_TEMPORAL) && Files.isRegularFile(entrada);
+    }
+
+    /**
+     * Listado de todos los archivos (en la raíz, fragmentados y deduplicados) en orden de ruta,
+     * paginado por cursor. Cada directorio se recorre con un DirectoryStream reteniendo solo los
+     * nombres de la página, así que la memoria no depende de la cantidad de archivos.
+     * Un archivo que la migración mueve durante el recorrido puede aparecer dos veces o ninguna.
+     */
+    public PaginaCursor<ArchivoDTO> listarArchivos(String cursor, int size) throws IOException {
+        if (size < 1 || size > TAMANO_MAXIMO_LISTADO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_LISTADO);
+        }
+        List<String> desde = cursor == null || cursor.isBlank() ? List.of() : decodificarCursor(cursor);
+
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Path> encontrados = new ArrayList<>(size + 1);
+        recorrer(fileStorageLocation, desde, size + 1, encontrados);
+
+        String siguienteCursor = null;
+        if (encontrados.size() > size) {
+            encontrados = encontrados.subList(0, size);
+            siguienteCursor = codificarCursor(fileStorageLocation.relativize(encontrados.get(size - 1)));
+        }
+
+        List<ArchivoDTO> contenido = new ArrayList<>(encontrados.size());
+        for (Path archivo : encontrados) {
+            try {
+                BasicFileAttributes atributos = Files.readAttributes(archivo, BasicFileAttributes.class);
+                String nombre = archivo.getFileName().toString();
+                contenido.add(new ArchivoDTO(nombre, atributos.size(), atributos.lastModifiedTime().toInstant(),
+                        "/api/v1/archivos/download/" + nombre));
+            } catch (NoSuchFileException ex) {
+                log.debug("Archivo {} eliminado o movido durante el listado", archivo);
+            }
+        }
+        return PaginaCursor.of(contenido, siguienteCursor);
+    }
+
+    // Recorrido en profundidad ordenado por nombre; {@code desde} son los componentes de la última ruta entregada
+    private void recorrer(Path directorio, List<String> desde, int limite, List<Path> salida) throws IOException {
+        String ultimo = null;
+        while (salida.size() < limite) {
+            int faltan = limite - salida.size();
+            PriorityQueue<String> menores = new PriorityQueue<>(faltan + 1, Comparator.reverseOrder());
+            try (DirectoryStream<Path> entradas = Files.newDirectoryStream(directorio)) {
+                for (Path entrada : entradas) {
+                    String nombre = entrada.getFileName().toString();
+                    if (nombre.startsWith(PREFIJO_TEMPORAL) || !posterior(nombre, ultimo, desde)) {
+                        continue;
+                    }
+                    menores.add(nombre);
+                    if (menores.size() > faltan) {
+                        menores.poll();
+                    }
+                }
+            }
+            if (menores.isEmpty()) {
+                return;
+            }
+
+            List<String> ordenados = new ArrayList<>(menores);
+            ordenados.sort(Comparator.naturalOrder());
+            for (String nombre : ordenados) {
+                Path entrada = directorio.resolve(nombre);
+                if (Files.isDirectory(entrada)) {
+                    boolean continuaCursor = ultimo == null && !desde.isEmpty() && nombre.equals(desde.get(0));
+                    recorrer(entrada, continuaCursor ? desde.subList(1, desde.size()) : List.of(), limite, salida);
+                } else {
+                    salida.add(entrada);
+                }
+                ultimo = nombre;
+                if (salida.size() >= limite) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean posterior(String nombre, String ultimo, List<String> desde) {
+        if (ultimo != null) {
+            return nombre.compareTo(ultimo) > 0;
+        }
+        if (desde.isEmpty()) {
+            return true;
+        }
+        int comparacion = nombre.compareTo(desde.get(0));
+        // Con más componentes el cursor está dentro de este directorio, que se vuelve a recorrer
+        return desde.size() > 1 ? comparacion >= 0 : comparacion > 0;
+    }
+
+    private static String codificarCursor(Path relativa) {
+        String ruta = relativa.toString().replace(relativa.getFileSystem().getSeparator(), "/");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ruta.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> decodificarCursor(String cursor) {
+        try {
+            String ruta = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return List.of(ruta.split("/"));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("El cursor no es válido", ex);
+        }
+    }
+
+    // Los archivos con nombre se reparten en ab/cd/<nombre> según el MD5 del nombre, para que ningún
+    // directorio acumule cientos de miles de entradas. Los anteriores siguen en la raíz hasta que
+    // MigracionArchivosService los mueve; loadFileAsPath los encuentra en cualquiera de los dos lugares
+    private Path rutaFragmentada(String fileName) {
+        String hash = DigestUtils.md5DigestAsHex(fileName.getBytes(StandardCharsets.UTF_8));
+        return fileStorageLocation.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(fileName)
+                .normalize();
+    }
+
+    private Path rutaContenido(String hash) {
+        return fileStorageLocation.resolve(DIRECTORIO_CONTENIDO)
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
     public String getUploadDir() {
         return uploadDir;
     }
@@ -91,4 +512,32 @@ public class FileStorageService {
     public Path getFileStorageLocation() {
         return fileStorageLocation;
     }
+
+    public DataSize getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ArchivoAlmacenado {
+
+        private final String fileName;
+
+        private final long tamano;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ArchivoDescargable {
+
+        private final Path ruta;
+
+        private final long tamano;
+
+        private final Instant ultimaModificacion;
+
+        private final String etag;
+
+        private final MediaType tipoContenido;
+    }
 }
@@ -0,0 +1,65 @@
+package com.dataservices.ssoma.gestion_empresas.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mueve en segundo plano los archivos que quedaron en la raíz del directorio de subidas a su
+ * ruta fragmentada, por lotes para no competir con las subidas y descargas. Mientras tanto
+ * las descargas los siguen encontrando en la raíz.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MigracionArchivosService {
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${app.upload.migracion.lote:500}")
+    private int lote;
+
+    private volatile boolean completa;
+
+    @Scheduled(fixedDelayString = "${app.upload.migracion.revision:PT1M}")
+    public void migrarLote() {
+        if (completa) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        int migrados = 0;
+        boolean quedan = false;
+        try (DirectoryStream<Path> entradas = Files.newDirectoryStream(fileStorageService.getFileStorageLocation(),
+                fileStorageService::esArchivoPlano)) {
+            for (Path plano : entradas) {
+                if (migrados >= lote) {
+                    quedan = true;
+                    break;
+                }
+                if (fileStorageService.migrarArchivoPlano(plano)) {
+                    migrados++;
+                }
+            }
+        } catch (IOException ex) {
+            log.error("Error migrando archivos a directorios fragmentados: {}", ex.getMessage());
+            return;
+        }
+
+        if (migrados > 0) {
+            log.info("Migrados {} archivos a directorios fragmentados en {} ms",
+                    migrados, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        // Los archivos nuevos ya se guardan fragmentados: una vez vacía, la raíz no se vuelve a recorrer
+        if (!quedan) {
+            completa = true;
+            log.info("Migración a directorios fragmentados completa");
+        }
+    }
+}
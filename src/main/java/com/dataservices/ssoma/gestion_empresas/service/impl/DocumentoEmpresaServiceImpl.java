@@ -1,26 +1,61 @@
 package com.dataservices.ssoma.gestion_empresas.service.impl;
 
+import com.dataservices.ssoma.gestion_empresas.dto.ConteoVencimientosDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ConteoVencimientosEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaBusquedaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaExportacionDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaListadoDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.ResumenVencimientosEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoFilaLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoLoteDTO;
 import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import com.dataservices.ssoma.gestion_empresas.event.DocumentoEmpresaModificadoEvent;
+import com.dataservices.ssoma.gestion_empresas.event.ReferenciasArchivoLiberadasEvent;
 import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
 import com.dataservices.ssoma.gestion_empresas.exception.ResourceNotFoundException;
 import com.dataservices.ssoma.gestion_empresas.mapper.DocumentoEmpresaMapper;
 import com.dataservices.ssoma.gestion_empresas.repository.EmpresaRepository;
 import com.dataservices.ssoma.gestion_empresas.repository.DocumentoEmpresaRepository;
 import com.dataservices.ssoma.gestion_empresas.service.DocumentoEmpresaService;
+import com.dataservices.ssoma.gestion_empresas.service.EmpresaCacheService;
+import com.dataservices.ssoma.gestion_empresas.util.BusquedaTexto;
+import com.dataservices.ssoma.gestion_empresas.util.CursorKeyset;
+import com.dataservices.ssoma.gestion_empresas.util.EscritorExportacion;
+import com.dataservices.ssoma.gestion_empresas.util.FiltroVencimiento;
+import com.dataservices.ssoma.gestion_empresas.util.FormatoExportacion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -28,9 +63,31 @@ import java.util.stream.Collectors;
 @Transactional
 public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
 
+    private static final int TAMANO_MAXIMO_LISTADO = 1000;
+    private static final List<Integer> HORIZONTES_RESUMEN = List.of(7, 15, 30);
+    private static final List<Integer> HORIZONTES_ESTADISTICAS = List.of(7, 30);
+    private static final int MAXIMO_HORIZONTES = 20;
+    private static final int TAMANO_MAXIMO_RESUMEN_LOTE = 1000;
+    private static final Set<String> CAMPOS_ORDEN_CURSOR = Set.of("fechaVencimiento");
+    private static final int FILAS_POR_FLUSH_EXPORTACION = 1000;
+    // Filas por transacción en el registro masivo; múltiplo de hibernate.jdbc.batch_size
+    private static final int FILAS_POR_BLOQUE_LOTE = 1000;
+    // Límite de parámetros del IN al resolver las empresas del lote
+    private static final int EMPRESAS_POR_CONSULTA_LOTE = 1000;
+    private static final String[] COLUMNAS_EXPORTACION = {
+            "documento_empresa_id", "empresa_id", "ruc", "razon_social",
+            "nombre_documento", "fecha_vencimiento", "estado", "documento_url"
+    };
+
     private final DocumentoEmpresaRepository documentoRepository;
     private final EmpresaRepository empresaRepository;
     private final DocumentoEmpresaMapper documentoMapper;
+    private final ObjectMapper objectMapper;
+    private final EmpresaCacheService empresaCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
 
     @Override
     public DocumentoEmpresaDTO crearDocumento(DocumentoEmpresaDTO documentoDTO) {
@@ -44,11 +101,120 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
         documento.setEmpresa(empresa);
 
         DocumentoEmpresa savedDocumento = documentoRepository.save(documento);
+        // La empresa cacheada incluye su lista de documentos
+        empresaCacheService.invalidarEmpresa(empresa.getEmpresaId(), empresa.getRuc());
+        eventPublisher.publishEvent(new DocumentoEmpresaModificadoEvent(empresa.getEmpresaId()));
 
         log.info("Documento creado exitosamente con ID: {}", savedDocumento.getDocumentoEmpresaId());
         return documentoMapper.toDTO(savedDocumento);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoLoteDTO crearDocumentosEnLote(List<DocumentoEmpresaDTO> documentos) {
+        log.info("Registrando lote de {} documentos", documentos.size());
+
+        ResultadoFilaLoteDTO[] resultados = new ResultadoFilaLoteDTO[documentos.size()];
+        List<Integer> filasValidas = new ArrayList<>();
+        for (int fila = 0; fila < documentos.size(); fila++) {
+            String error = validarFilaLote(documentos.get(fila));
+            if (error != null) {
+                resultados[fila] = ResultadoFilaLoteDTO.error(fila, error);
+            } else {
+                filasValidas.add(fila);
+            }
+        }
+
+        // Todas las empresas referenciadas se resuelven de una vez, no una por documento
+        Map<UUID, String> rucPorEmpresa = resolverEmpresasDelLote(filasValidas.stream()
+                .map(fila -> documentos.get(fila).getEmpresaId())
+                .collect(Collectors.toSet()));
+
+        List<Integer> filasAInsertar = new ArrayList<>();
+        for (Integer fila : filasValidas) {
+            UUID empresaId = documentos.get(fila).getEmpresaId();
+            if (rucPorEmpresa.containsKey(empresaId)) {
+                filasAInsertar.add(fila);
+            } else {
+                resultados[fila] = ResultadoFilaLoteDTO.error(fila, "Empresa no encontrada con ID: " + empresaId);
+            }
+        }
+        // Agrupados por empresa, los documentos de una misma empresa se insertan juntos
+        filasAInsertar.sort(Comparator.comparing(fila -> documentos.get(fila).getEmpresaId()));
+
+        for (int inicio = 0; inicio < filasAInsertar.size(); inicio += FILAS_POR_BLOQUE_LOTE) {
+            int fin = Math.min(inicio + FILAS_POR_BLOQUE_LOTE, filasAInsertar.size());
+            guardarBloqueDocumentos(documentos, filasAInsertar.subList(inicio, fin), resultados);
+        }
+
+        // Una invalidación por empresa afectada, no una por documento
+        filasAInsertar.stream()
+                .filter(fila -> resultados[fila].getEstado() == ResultadoFilaLoteDTO.Estado.CREADO)
+                .map(fila -> documentos.get(fila).getEmpresaId())
+                .distinct()
+                .forEach(empresaId -> empresaCacheService.invalidarEmpresa(empresaId, rucPorEmpresa.get(empresaId)));
+        eventPublisher.publishEvent(new DocumentoEmpresaModificadoEvent(null));
+
+        ResultadoLoteDTO resultado = ResultadoLoteDTO.of(Arrays.asList(resultados));
+        log.info("Lote de documentos procesado - Creados: {}, Con error: {}",
+                resultado.getCreados(), resultado.getFallidos());
+        return resultado;
+    }
+
+    private Map<UUID, String> resolverEmpresasDelLote(Set<UUID> empresaIds) {
+        Map<UUID, String> rucPorEmpresa = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(empresaIds);
+        for (int inicio = 0; inicio < ids.size(); inicio += EMPRESAS_POR_CONSULTA_LOTE) {
+            List<UUID> bloque = ids.subList(inicio, Math.min(inicio + EMPRESAS_POR_CONSULTA_LOTE, ids.size()));
+            // HashMap admite empresas sin RUC
+            empresaRepository.findAllById(bloque)
+                    .forEach(empresa -> rucPorEmpresa.put(empresa.getEmpresaId(), empresa.getRuc()));
+        }
+        return rucPorEmpresa;
+    }
+
+    private void guardarBloqueDocumentos(List<DocumentoEmpresaDTO> documentos, List<Integer> filas,
+                                         ResultadoFilaLoteDTO[] resultados) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Integer fila : filas) {
+                    DocumentoEmpresaDTO documentoDTO = documentos.get(fila);
+                    DocumentoEmpresa documento = documentoMapper.toEntity(documentoDTO);
+                    documento.setDocumentoEmpresaId(null);
+                    // Proxy sin consulta: la empresa ya se validó al inicio del lote
+                    documento.setEmpresa(entityManager.getReference(Empresa.class, documentoDTO.getEmpresaId()));
+                    documentoRepository.save(documento);
+                    resultados[fila] = ResultadoFilaLoteDTO.creado(fila, documento.getDocumentoEmpresaId());
+                }
+
+                // Los INSERT se envían agrupados según hibernate.jdbc.batch_size
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException ex) {
+            log.error("Error guardando un bloque de {} documentos: {}", filas.size(), ex.getMessage());
+            for (Integer fila : filas) {
+                resultados[fila] = ResultadoFilaLoteDTO.error(fila,
+                        "No se pudo guardar el bloque que contenía la fila: " + ex.getMessage());
+            }
+        }
+    }
+
+    private String validarFilaLote(DocumentoEmpresaDTO documentoDTO) {
+        if (documentoDTO == null) {
+            return "La fila está vacía";
+        }
+
+        Set<ConstraintViolation<DocumentoEmpresaDTO>> violaciones = validator.validate(documentoDTO);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
     @Override
     public DocumentoEmpresaDTO actualizarDocumento(UUID documentoId, DocumentoEmpresaDTO documentoDTO) {
         log.info("Actualizando documento con ID: {}", documentoId);
@@ -56,19 +222,29 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
         DocumentoEmpresa documentoExistente = documentoRepository.findById(documentoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + documentoId));
 
+        Empresa empresaAnterior = documentoExistente.getEmpresa();
+        empresaCacheService.invalidarEmpresa(empresaAnterior.getEmpresaId(), empresaAnterior.getRuc());
+
         // Validar que la empresa existe si se está cambiando
         if (!documentoExistente.getEmpresaId().equals(documentoDTO.getEmpresaId())) {
             Empresa nuevaEmpresa = empresaRepository.findById(documentoDTO.getEmpresaId())
                     .orElseThrow(() -> new ResourceNotFoundException("Empresa no encontrada con ID: " + documentoDTO.getEmpresaId()));
             documentoExistente.setEmpresa(nuevaEmpresa);
+            empresaCacheService.invalidarEmpresa(nuevaEmpresa.getEmpresaId(), nuevaEmpresa.getRuc());
         }
 
+        String urlAnterior = documentoExistente.getDocumentoUrl();
+
         // Actualizar campos
         documentoExistente.setNombreDocumento(documentoDTO.getNombreDocumento());
         documentoExistente.setFechaVencimiento(documentoDTO.getFechaVencimiento());
         documentoExistente.setDocumentoUrl(documentoDTO.getDocumentoUrl());
 
         DocumentoEmpresa updatedDocumento = documentoRepository.save(documentoExistente);
+        eventPublisher.publishEvent(new DocumentoEmpresaModificadoEvent(updatedDocumento.getEmpresa().getEmpresaId()));
+        if (urlAnterior != null && !urlAnterior.equals(documentoDTO.getDocumentoUrl())) {
+            eventPublisher.publishEvent(new ReferenciasArchivoLiberadasEvent(List.of(urlAnterior)));
+        }
 
         log.info("Documento actualizado exitosamente: {}", documentoId);
         return documentoMapper.toDTO(updatedDocumento);
@@ -105,6 +281,79 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
         return documentosPage.map(documentoMapper::toDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<DocumentoEmpresaDTO> obtenerDocumentosPorEmpresaConCursor(
+            UUID empresaId, String sortBy, String sortDir, String cursor, int size) {
+        log.info("Obteniendo documentos por cursor para empresa ID: {} - Orden: {} {}",
+                empresaId, sortBy, sortDir);
+
+        if (!CAMPOS_ORDEN_CURSOR.contains(sortBy)) {
+            throw new IllegalArgumentException("No se puede paginar por cursor ordenando por: " + sortBy);
+        }
+        if (size < 1 || size > TAMANO_MAXIMO_LISTADO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_LISTADO);
+        }
+
+        boolean descendente = sortDir.equalsIgnoreCase("desc");
+        LocalDate valorCursor = null;
+        UUID idCursor = null;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorKeyset posicion = CursorKeyset.decodificar(cursor);
+            posicion.validarOrden(sortBy, descendente);
+            valorCursor = posicion.getValor() == null ? null : fechaCursor(posicion.getValor());
+            idCursor = posicion.getId();
+        }
+
+        // Se pide un registro extra para saber si existe una página siguiente sin contar
+        List<DocumentoEmpresa> documentos = documentoRepository.findByEmpresaIdConCursor(
+                empresaId, sortBy, descendente, valorCursor, idCursor, size + 1);
+
+        String siguienteCursor = null;
+        if (documentos.size() > size) {
+            documentos = documentos.subList(0, size);
+            DocumentoEmpresa ultimo = documentos.get(size - 1);
+            LocalDate fecha = ultimo.getFechaVencimiento();
+            siguienteCursor = new CursorKeyset(sortBy, descendente,
+                    fecha == null ? null : fecha.toString(), ultimo.getDocumentoEmpresaId()).codificar();
+        }
+
+        List<DocumentoEmpresaDTO> contenido = documentos.stream()
+                .map(documentoMapper::toDTO)
+                .collect(Collectors.toList());
+        return PaginaCursor.of(contenido, siguienteCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<DocumentoEmpresaListadoDTO> listarDocumentos(
+            List<UUID> empresaIds, LocalDate fechaDesde, LocalDate fechaHasta,
+            String nombreDocumento, String cursor, int size) {
+        log.info("Listando documentos - Empresas: {}, Vencimiento: {} - {}, Nombre: {}, Cursor: {}",
+                empresaIds == null ? "todas" : empresaIds.size(), fechaDesde, fechaHasta, nombreDocumento, cursor);
+
+        if (size < 1 || size > TAMANO_MAXIMO_LISTADO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_LISTADO);
+        }
+
+        UUID despuesDe = (cursor == null || cursor.isBlank()) ? null : UUID.fromString(cursor);
+        String nombre = (nombreDocumento == null || nombreDocumento.isBlank()) ? null : nombreDocumento;
+
+        // Se pide un registro extra para saber si existe una página siguiente sin contar
+        List<DocumentoEmpresaListadoDTO> documentos = documentoRepository.findListado(
+                empresaIds, fechaDesde, fechaHasta, nombre, despuesDe, size + 1);
+
+        if (documentos.size() <= size) {
+            return PaginaCursor.of(documentos, null);
+        }
+
+        List<DocumentoEmpresaListadoDTO> pagina = documentos.subList(0, size);
+        String siguienteCursor = pagina.get(size - 1).getDocumentoEmpresaId().toString();
+        return PaginaCursor.of(pagina, siguienteCursor);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<DocumentoEmpresaDTO> obtenerDocumentosPorFecha(LocalDate fecha) {
@@ -231,6 +480,14 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DocumentoEmpresaBusquedaDTO> buscarDocumentosPorSimilitud(String texto, UUID empresaId, int limite) {
+        log.info("Buscando documentos por similitud: {} - Empresa: {}", texto, empresaId);
+
+        return documentoRepository.buscarPorSimilitud(BusquedaTexto.validar(texto, limite), empresaId, limite);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<DocumentoEmpresaDTO> buscarDocumentosPorNombreYEmpresa(UUID empresaId, String nombreDocumento) {
@@ -247,14 +504,84 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
     public void eliminarDocumento(UUID documentoId) {
         log.info("Eliminando documento con ID: {}", documentoId);
 
-        if (!documentoRepository.existsById(documentoId)) {
-            throw new ResourceNotFoundException("Documento no encontrado con ID: " + documentoId);
-        }
+        DocumentoEmpresa documento = documentoRepository.findById(documentoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + documentoId));
 
-        documentoRepository.deleteById(documentoId);
+        documentoRepository.delete(documento);
+        empresaCacheService.invalidarEmpresa(documento.getEmpresa().getEmpresaId(), documento.getEmpresa().getRuc());
+        eventPublisher.publishEvent(new DocumentoEmpresaModificadoEvent(documento.getEmpresaId()));
+        eventPublisher.publishEvent(new ReferenciasArchivoLiberadasEvent(
+                Collections.singletonList(documento.getDocumentoUrl())));
         log.info("Documento eliminado exitosamente: {}", documentoId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarDocumentos(FormatoExportacion formato, FiltroVencimiento filtro,
+                                   LocalDate fecha, int diasAnticipacion, OutputStream salida) throws IOException {
+        if (diasAnticipacion < 0) {
+            throw new IllegalArgumentException("Los días de anticipación no pueden ser negativos");
+        }
+        LocalDate referencia = fecha != null ? fecha : LocalDate.now();
+        log.info("Exportando documentos en formato {} - Filtro: {}, Fecha: {}", formato, filtro, referencia);
+
+        // Mismos criterios que findDocumentosVencidos y findDocumentosPorVencer
+        LocalDate fechaDesde = null;
+        LocalDate fechaHasta = null;
+        if (filtro == FiltroVencimiento.VENCIDOS) {
+            fechaHasta = referencia;
+        } else if (filtro == FiltroVencimiento.POR_VENCER) {
+            fechaDesde = referencia;
+            fechaHasta = referencia.plusDays(diasAnticipacion);
+        }
+
+        long filas = 0;
+        try (Stream<DocumentoEmpresaExportacionDTO> documentos =
+                     documentoRepository.streamExportacion(fechaDesde, fechaHasta);
+             EscritorExportacion escritor = new EscritorExportacion(
+                     formato, COLUMNAS_EXPORTACION, salida, objectMapper)) {
+
+            Iterator<DocumentoEmpresaExportacionDTO> iterador = documentos.iterator();
+            while (iterador.hasNext()) {
+                DocumentoEmpresaExportacionDTO documento = iterador.next();
+                escritor.escribirFila(
+                        documento.getDocumentoEmpresaId(), documento.getEmpresaId(),
+                        documento.getRuc(), documento.getRazonSocial(),
+                        documento.getNombreDocumento(), documento.getFechaVencimiento(),
+                        estadoVencimiento(documento.getFechaVencimiento(), referencia, diasAnticipacion),
+                        documento.getDocumentoUrl());
+
+                if (++filas % FILAS_POR_FLUSH_EXPORTACION == 0) {
+                    escritor.flush();
+                }
+            }
+        }
+
+        log.info("Exportación de documentos finalizada: {} filas", filas);
+    }
+
+    // Un cursor alterado no debe llegar como 500: se rechaza como argumento inválido
+    private static LocalDate fechaCursor(String valor) {
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("El cursor no es válido", ex);
+        }
+    }
+
+    private String estadoVencimiento(LocalDate fechaVencimiento, LocalDate referencia, int diasAnticipacion) {
+        if (fechaVencimiento == null) {
+            return "SIN_FECHA";
+        }
+        if (!fechaVencimiento.isAfter(referencia)) {
+            return "VENCIDO";
+        }
+        if (!fechaVencimiento.isAfter(referencia.plusDays(diasAnticipacion))) {
+            return "POR_VENCER";
+        }
+        return "VIGENTE";
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Long contarDocumentosPorEmpresa(UUID empresaId) {
@@ -319,13 +646,9 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
     public Map<String, Object> obtenerEstadisticasDocumentos() {
         log.info("Obteniendo estadísticas generales de documentos");
 
-        Map<String, Object> estadisticas = new HashMap<>();
-        estadisticas.put("totalDocumentos", documentoRepository.count());
-        estadisticas.put("documentosVencidos", contarDocumentosVencidos());
-        estadisticas.put("documentosPorVencer30Dias", contarDocumentosPorVencer(30));
-        estadisticas.put("documentosPorVencer7Dias", contarDocumentosPorVencer(7));
-
-        return estadisticas;
+        ConteoVencimientosDTO conteo = documentoRepository
+                .contarVencimientos(LocalDate.now(), HORIZONTES_ESTADISTICAS, null);
+        return armarEstadisticas(conteo);
     }
 
     @Override
@@ -333,39 +656,107 @@ public class DocumentoEmpresaServiceImpl implements DocumentoEmpresaService {
     public Map<String, Object> obtenerEstadisticasDocumentosPorEmpresa(UUID empresaId) {
         log.info("Obteniendo estadísticas de documentos para empresa: {}", empresaId);
 
-        Map<String, Object> estadisticas = new HashMap<>();
-        estadisticas.put("totalDocumentos", contarDocumentosPorEmpresa(empresaId));
-        estadisticas.put("documentosVencidos", contarDocumentosVencidosPorEmpresa(empresaId));
-        estadisticas.put("documentosPorVencer30Dias", contarDocumentosPorVencerPorEmpresa(empresaId, 30));
-        estadisticas.put("documentosPorVencer7Dias", contarDocumentosPorVencerPorEmpresa(empresaId, 7));
-
-        return estadisticas;
+        ConteoVencimientosDTO conteo = documentoRepository
+                .contarVencimientos(LocalDate.now(), HORIZONTES_ESTADISTICAS, empresaId);
+        return armarEstadisticas(conteo);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> obtenerResumenVencimientos() {
-        log.info("Obteniendo resumen de vencimientos");
+        return obtenerResumenVencimientos(HORIZONTES_RESUMEN);
+    }
 
-        Map<String, Long> resumen = new HashMap<>();
-        resumen.put("vencidos", contarDocumentosVencidos());
-        resumen.put("vencenEn7Dias", contarDocumentosPorVencer(7));
-        resumen.put("vencenEn15Dias", contarDocumentosPorVencer(15));
-        resumen.put("vencenEn30Dias", contarDocumentosPorVencer(30));
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> obtenerResumenVencimientos(List<Integer> horizontesDias) {
+        log.info("Obteniendo resumen de vencimientos - Horizontes: {}", horizontesDias);
 
-        return resumen;
+        ConteoVencimientosDTO conteo = documentoRepository
+                .contarVencimientos(LocalDate.now(), normalizarHorizontes(horizontesDias), null);
+        return armarResumen(conteo);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> obtenerResumenVencimientosPorEmpresa(UUID empresaId) {
-        log.info("Obteniendo resumen de vencimientos para empresa: {}", empresaId);
+        return obtenerResumenVencimientosPorEmpresa(empresaId, HORIZONTES_RESUMEN);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> obtenerResumenVencimientosPorEmpresa(UUID empresaId, List<Integer> horizontesDias) {
+        log.info("Obteniendo resumen de vencimientos para empresa: {} - Horizontes: {}",
+                empresaId, horizontesDias);
+
+        ConteoVencimientosDTO conteo = documentoRepository
+                .contarVencimientos(LocalDate.now(), normalizarHorizontes(horizontesDias), empresaId);
+        return armarResumen(conteo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<ResumenVencimientosEmpresaDTO> obtenerResumenVencimientosPorEmpresas(
+            List<UUID> empresaIds, List<Integer> horizontesDias, String cursor, int size) {
+        log.info("Obteniendo resumen de vencimientos por lote - Empresas: {}, Cursor: {}",
+                empresaIds == null ? "todas" : empresaIds.size(), cursor);
+
+        if (size < 1 || size > TAMANO_MAXIMO_RESUMEN_LOTE) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_RESUMEN_LOTE);
+        }
+
+        UUID despuesDe = (cursor == null || cursor.isBlank()) ? null : UUID.fromString(cursor);
+
+        // Se pide un registro extra para saber si existe una página siguiente sin contar
+        List<ConteoVencimientosEmpresaDTO> conteos = documentoRepository.contarVencimientosPorEmpresa(
+                LocalDate.now(), normalizarHorizontes(horizontesDias), empresaIds, despuesDe, size + 1);
+
+        boolean tieneMas = conteos.size() > size;
+        List<ResumenVencimientosEmpresaDTO> resumenes = conteos.stream()
+                .limit(size)
+                .map(conteo -> new ResumenVencimientosEmpresaDTO(
+                        conteo.getEmpresaId(),
+                        conteo.getRazonSocial(),
+                        conteo.getConteo().getTotal(),
+                        armarResumen(conteo.getConteo())))
+                .collect(Collectors.toList());
+
+        String siguienteCursor = tieneMas
+                ? resumenes.get(resumenes.size() - 1).getEmpresaId().toString()
+                : null;
+        return PaginaCursor.of(resumenes, siguienteCursor);
+    }
+
+    private List<Integer> normalizarHorizontes(List<Integer> horizontesDias) {
+        if (horizontesDias == null || horizontesDias.isEmpty()) {
+            return HORIZONTES_RESUMEN;
+        }
+        if (horizontesDias.size() > MAXIMO_HORIZONTES) {
+            throw new IllegalArgumentException(
+                    "No se pueden solicitar más de " + MAXIMO_HORIZONTES + " horizontes");
+        }
+        if (horizontesDias.stream().anyMatch(dias -> dias == null || dias < 1)) {
+            throw new IllegalArgumentException("Los horizontes deben ser números de días mayores a 0");
+        }
+        return horizontesDias.stream().distinct().sorted().collect(Collectors.toList());
+    }
+
+    private Map<String, Object> armarEstadisticas(ConteoVencimientosDTO conteo) {
+        Map<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("totalDocumentos", conteo.getTotal());
+        estadisticas.put("documentosVencidos", conteo.getVencidos());
+        estadisticas.put("documentosPorVencer30Dias", conteo.getPorVencer().get(30));
+        estadisticas.put("documentosPorVencer7Dias", conteo.getPorVencer().get(7));
+
+        return estadisticas;
+    }
 
-        Map<String, Long> resumen = new HashMap<>();
-        resumen.put("vencidos", contarDocumentosVencidosPorEmpresa(empresaId));
-        resumen.put("vencenEn7Dias", contarDocumentosPorVencerPorEmpresa(empresaId, 7));
-        resumen.put("vencenEn15Dias", contarDocumentosPorVencerPorEmpresa(empresaId, 15));
-        resumen.put("vencenEn30Dias", contarDocumentosPorVencerPorEmpresa(empresaId, 30));
+    private Map<String, Long> armarResumen(ConteoVencimientosDTO conteo) {
+        Map<String, Long> resumen = new LinkedHashMap<>();
+        resumen.put("vencidos", conteo.getVencidos());
+        conteo.getPorVencer().forEach((dias, cantidad) ->
+                resumen.put("vencenEn" + dias + "Dias", cantidad));
 
         return resumen;
     }
@@ -1,25 +1,59 @@
 package com.dataservices.ssoma.gestion_empresas.service.impl;
 
+import com.dataservices.ssoma.gestion_empresas.config.CacheConfig;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaBusquedaDTO;
 import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EstadisticasEmpresasDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.PaginaCursor;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoFilaLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ResultadoLoteDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
 import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import com.dataservices.ssoma.gestion_empresas.event.DocumentoEmpresaModificadoEvent;
+import com.dataservices.ssoma.gestion_empresas.event.EmpresaModificadaEvent;
+import com.dataservices.ssoma.gestion_empresas.event.ReferenciasArchivoLiberadasEvent;
 import com.dataservices.ssoma.gestion_empresas.exception.ResourceNotFoundException;
-import com.dataservices.ssoma.gestion_empresas.exception.BusinessException;
 import com.dataservices.ssoma.gestion_empresas.mapper.EmpresaMapper;
 import com.dataservices.ssoma.gestion_empresas.repository.EmpresaRepository;
+import com.dataservices.ssoma.gestion_empresas.service.EmpresaCacheService;
 import com.dataservices.ssoma.gestion_empresas.service.EmpresaService;
+import com.dataservices.ssoma.gestion_empresas.util.BusquedaTexto;
+import com.dataservices.ssoma.gestion_empresas.util.CursorKeyset;
+import com.dataservices.ssoma.gestion_empresas.util.EscritorExportacion;
+import com.dataservices.ssoma.gestion_empresas.util.FormatoExportacion;
+import com.dataservices.ssoma.gestion_empresas.util.RestriccionesBD;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,25 +61,159 @@ import java.util.stream.Collectors;
 @Transactional
 public class EmpresaServiceImpl implements EmpresaService {
 
+    private static final Set<String> CAMPOS_ORDEN_CURSOR = Set.of("razonSocial", "scoreSeguridad");
+    private static final int TAMANO_MAXIMO_CURSOR = 1000;
+    private static final Set<String> CAMPOS_ORDEN_DOCUMENTOS =
+            Set.of("fechaVencimiento", "nombreDocumento", "documentoEmpresaId");
+    private static final String ORDEN_DOCUMENTOS_POR_DEFECTO = "fechaVencimiento";
+    private static final int LIMITE_DOCUMENTOS_POR_DEFECTO = 500;
+    private static final int LIMITE_MAXIMO_DOCUMENTOS = 5000;
+    private static final int FILAS_POR_FLUSH_EXPORTACION = 500;
+    // Filas por transacción en la carga masiva; múltiplo de hibernate.jdbc.batch_size
+    private static final int FILAS_POR_BLOQUE_LOTE = 1000;
+    private static final int INTENTOS_BLOQUE_LOTE = 2;
+    private static final String[] COLUMNAS_EXPORTACION = {
+            "empresa_id", "ruc", "razon_social", "direccion", "sector", "score_seguridad"
+    };
+
     private final EmpresaRepository empresaRepository;
     private final EmpresaMapper empresaMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final EmpresaCacheService empresaCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
 
     @Override
     public EmpresaDTO crearEmpresa(EmpresaDTO empresaDTO) {
         log.info("Creando nueva empresa: {}", empresaDTO.getRazonSocial());
 
-        // Validar que el RUC sea único
-        if (empresaDTO.getRuc() != null && empresaRepository.existsByRuc(empresaDTO.getRuc())) {
-            throw new BusinessException("Ya existe una empresa con el RUC: " + empresaDTO.getRuc());
-        }
-
+        // La unicidad del RUC la garantiza uk_empresas_ruc; GlobalExceptionHandler traduce el conflicto
         Empresa empresa = empresaMapper.toEntity(empresaDTO);
-        Empresa savedEmpresa = empresaRepository.save(empresa);
+        Empresa savedEmpresa = empresaRepository.saveAndFlush(empresa);
+        // existeRuc pudo haber guardado "false" para este RUC
+        empresaCacheService.invalidarEmpresa(savedEmpresa.getEmpresaId(), savedEmpresa.getRuc());
+        eventPublisher.publishEvent(new EmpresaModificadaEvent(savedEmpresa.getEmpresaId()));
 
         log.info("Empresa creada exitosamente con ID: {}", savedEmpresa.getEmpresaId());
         return empresaMapper.toDTO(savedEmpresa);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoLoteDTO guardarEmpresasEnLote(List<EmpresaDTO> empresas) {
+        log.info("Guardando lote de {} empresas", empresas.size());
+
+        ResultadoFilaLoteDTO[] resultados = new ResultadoFilaLoteDTO[empresas.size()];
+        Set<String> rucsDelLote = new HashSet<>();
+
+        // Cada bloque se confirma por separado: un error de base de datos solo afecta a sus filas
+        for (int inicio = 0; inicio < empresas.size(); inicio += FILAS_POR_BLOQUE_LOTE) {
+            int fin = Math.min(inicio + FILAS_POR_BLOQUE_LOTE, empresas.size());
+            guardarBloqueEmpresas(empresas, inicio, fin, rucsDelLote, resultados);
+        }
+
+        List<UUID> empresaIds = Arrays.stream(resultados)
+                .map(ResultadoFilaLoteDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new EmpresaModificadaEvent(empresaIds));
+
+        ResultadoLoteDTO resultado = ResultadoLoteDTO.of(Arrays.asList(resultados));
+        log.info("Lote de empresas procesado - Creadas: {}, Actualizadas: {}, Con error: {}",
+                resultado.getCreados(), resultado.getActualizados(), resultado.getFallidos());
+        return resultado;
+    }
+
+    private void guardarBloqueEmpresas(List<EmpresaDTO> empresas, int inicio, int fin,
+                                       Set<String> rucsDelLote, ResultadoFilaLoteDTO[] resultados) {
+        List<Integer> filasValidas = new ArrayList<>();
+        Set<String> rucs = new HashSet<>();
+        for (int fila = inicio; fila < fin; fila++) {
+            EmpresaDTO empresaDTO = empresas.get(fila);
+            String error = validarFilaLote(empresaDTO, rucsDelLote);
+            if (error != null) {
+                resultados[fila] = ResultadoFilaLoteDTO.error(fila, error);
+                continue;
+            }
+            filasValidas.add(fila);
+            if (empresaDTO.getRuc() != null) {
+                rucs.add(empresaDTO.getRuc());
+            }
+        }
+        if (filasValidas.isEmpty()) {
+            return;
+        }
+
+        for (int intento = 1; ; intento++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        guardarFilasBloque(empresas, filasValidas, rucs, resultados));
+                return;
+            } catch (RuntimeException ex) {
+                // Otra escritura insertó uno de los RUC después de la consulta: al reintentar se encuentra y se actualiza
+                if (intento < INTENTOS_BLOQUE_LOTE && RestriccionesBD.violaRestriccion(ex, Empresa.UK_RUC)) {
+                    log.warn("RUC insertado en paralelo en el bloque de empresas {}-{}, reintentando", inicio, fin - 1);
+                    continue;
+                }
+                log.error("Error guardando el bloque de empresas {}-{}: {}", inicio, fin - 1, ex.getMessage());
+                for (Integer fila : filasValidas) {
+                    resultados[fila] = ResultadoFilaLoteDTO.error(fila,
+                            "No se pudo guardar el bloque de filas " + inicio + "-" + (fin - 1) + ": " + ex.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void guardarFilasBloque(List<EmpresaDTO> empresas, List<Integer> filasValidas, Set<String> rucs,
+                                    ResultadoFilaLoteDTO[] resultados) {
+        // Una sola consulta IN por bloque en lugar de un existsByRuc por fila
+        Map<String, Empresa> existentes = rucs.isEmpty() ? Map.of() : empresaRepository.findByRucIn(rucs)
+                .stream()
+                .collect(Collectors.toMap(Empresa::getRuc, Function.identity(), (a, b) -> a));
+
+        for (Integer fila : filasValidas) {
+            EmpresaDTO empresaDTO = empresas.get(fila);
+            Empresa existente = empresaDTO.getRuc() != null ? existentes.get(empresaDTO.getRuc()) : null;
+
+            if (existente != null) {
+                empresaMapper.updateEntityFromDTO(empresaDTO, existente);
+                resultados[fila] = ResultadoFilaLoteDTO.actualizado(fila, existente.getEmpresaId());
+            } else {
+                Empresa nueva = empresaMapper.toEntity(empresaDTO);
+                nueva.setEmpresaId(null);
+                empresaRepository.save(nueva);
+                resultados[fila] = ResultadoFilaLoteDTO.creado(fila, nueva.getEmpresaId());
+            }
+            empresaCacheService.invalidarEmpresa(resultados[fila].getId(), empresaDTO.getRuc());
+        }
+
+        // Los INSERT/UPDATE se envían agrupados según hibernate.jdbc.batch_size
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String validarFilaLote(EmpresaDTO empresaDTO, Set<String> rucsDelLote) {
+        if (empresaDTO == null) {
+            return "La fila está vacía";
+        }
+
+        Set<ConstraintViolation<EmpresaDTO>> violaciones = validator.validate(empresaDTO);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (empresaDTO.getRuc() != null && !rucsDelLote.add(empresaDTO.getRuc())) {
+            return "El RUC " + empresaDTO.getRuc() + " está repetido en el lote";
+        }
+        return null;
+    }
+
     @Override
     public EmpresaDTO actualizarEmpresa(UUID empresaId, EmpresaDTO empresaDTO) {
         log.info("Actualizando empresa con ID: {}", empresaId);
@@ -53,11 +221,7 @@ public class EmpresaServiceImpl implements EmpresaService {
         Empresa empresaExistente = empresaRepository.findById(empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Empresa no encontrada con ID: " + empresaId));
 
-        // Validar que el RUC sea único (excluyendo la empresa actual)
-        if (empresaDTO.getRuc() != null &&
-                empresaRepository.existsByRucAndEmpresaIdNot(empresaDTO.getRuc(), empresaId)) {
-            throw new BusinessException("Ya existe otra empresa con el RUC: " + empresaDTO.getRuc());
-        }
+        String rucAnterior = empresaExistente.getRuc();
 
         // Actualizar campos
         empresaExistente.setRuc(empresaDTO.getRuc());
@@ -66,7 +230,9 @@ public class EmpresaServiceImpl implements EmpresaService {
         empresaExistente.setSector(empresaDTO.getSector());
         empresaExistente.setScoreSeguridad(empresaDTO.getScoreSeguridad());
 
-        Empresa updatedEmpresa = empresaRepository.save(empresaExistente);
+        Empresa updatedEmpresa = empresaRepository.saveAndFlush(empresaExistente);
+        empresaCacheService.invalidarEmpresa(empresaId, rucAnterior, updatedEmpresa.getRuc());
+        eventPublisher.publishEvent(new EmpresaModificadaEvent(empresaId));
 
         log.info("Empresa actualizada exitosamente: {}", empresaId);
         return empresaMapper.toDTO(updatedEmpresa);
@@ -74,17 +240,41 @@ public class EmpresaServiceImpl implements EmpresaService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EMPRESAS_POR_ID, key = "#empresaId")
     public EmpresaDTO obtenerEmpresaPorId(UUID empresaId) {
         log.info("Obteniendo empresa por ID: {}", empresaId);
 
-        Empresa empresa = empresaRepository.findById(empresaId)
-                .orElseThrow(() -> new ResourceNotFoundException("Empresa no encontrada con ID: " + empresaId));
+        return buscarConDocumentos(empresaId, ORDEN_DOCUMENTOS_POR_DEFECTO, false, LIMITE_DOCUMENTOS_POR_DEFECTO);
+    }
 
-        return empresaMapper.toDTO(empresa);
+    @Override
+    @Transactional(readOnly = true)
+    public EmpresaDTO obtenerEmpresaConDocumentos(UUID empresaId, String sortBy, String sortDir, Integer limite) {
+        log.info("Obteniendo empresa con documentos por ID: {} - Orden: {} {}, Límite: {}",
+                empresaId, sortBy, sortDir, limite);
+
+        String campoOrden = sortBy != null ? sortBy : ORDEN_DOCUMENTOS_POR_DEFECTO;
+        int limiteDocumentos = limite != null ? limite : LIMITE_DOCUMENTOS_POR_DEFECTO;
+        if (!CAMPOS_ORDEN_DOCUMENTOS.contains(campoOrden)) {
+            throw new IllegalArgumentException("No se pueden ordenar los documentos por: " + campoOrden);
+        }
+        if (limiteDocumentos < 1 || limiteDocumentos > LIMITE_MAXIMO_DOCUMENTOS) {
+            throw new IllegalArgumentException(
+                    "El límite de documentos debe estar entre 1 y " + LIMITE_MAXIMO_DOCUMENTOS);
+        }
+
+        return buscarConDocumentos(empresaId, campoOrden, "desc".equalsIgnoreCase(sortDir), limiteDocumentos);
+    }
+
+    // Empresa y documentos en una sola sentencia, sin cargar la colección perezosa ni el proxy de empresa
+    private EmpresaDTO buscarConDocumentos(UUID empresaId, String campoOrden, boolean descendente, int limite) {
+        return empresaRepository.findConDocumentos(empresaId, campoOrden, descendente, limite)
+                .orElseThrow(() -> new ResourceNotFoundException("Empresa no encontrada con ID: " + empresaId));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EMPRESAS_POR_RUC, key = "#ruc", condition = "#ruc != null")
     public EmpresaDTO obtenerEmpresaPorRuc(String ruc) {
         log.info("Obteniendo empresa por RUC: {}", ruc);
 
@@ -134,6 +324,14 @@ public class EmpresaServiceImpl implements EmpresaService {
         return empresasPage.map(empresaMapper::toDTOWithoutDocumentos);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpresaBusquedaDTO> buscarEmpresasPorSimilitud(String texto, int limite) {
+        log.info("Buscando empresas por similitud: {}", texto);
+
+        return empresaRepository.buscarPorSimilitud(BusquedaTexto.validar(texto, limite), limite);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<EmpresaDTO> obtenerEmpresasPorSector(String sector) {
@@ -178,18 +376,104 @@ public class EmpresaServiceImpl implements EmpresaService {
         return empresasPage.map(empresaMapper::toDTOWithoutDocumentos);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<EmpresaDTO> buscarEmpresasConCursor(
+            String razonSocial, String sector, Integer scoreMin, Integer scoreMax,
+            String sortBy, String sortDir, String cursor, int size) {
+
+        log.info("Buscando empresas por cursor - Razón: {}, Sector: {}, Score: {}-{}, Orden: {} {}",
+                razonSocial, sector, scoreMin, scoreMax, sortBy, sortDir);
+
+        if (!CAMPOS_ORDEN_CURSOR.contains(sortBy)) {
+            throw new IllegalArgumentException("No se puede paginar por cursor ordenando por: " + sortBy);
+        }
+        if (size < 1 || size > TAMANO_MAXIMO_CURSOR) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_CURSOR);
+        }
+
+        boolean descendente = sortDir.equalsIgnoreCase("desc");
+        Object valorCursor = null;
+        UUID idCursor = null;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorKeyset posicion = CursorKeyset.decodificar(cursor);
+            posicion.validarOrden(sortBy, descendente);
+            valorCursor = convertirValorCursor(sortBy, posicion.getValor());
+            idCursor = posicion.getId();
+        }
+
+        String filtroRazonSocial = (razonSocial == null || razonSocial.isBlank()) ? null : razonSocial;
+        String filtroSector = (sector == null || sector.isBlank()) ? null : sector;
+
+        // Se pide un registro extra para saber si existe una página siguiente sin contar
+        List<Empresa> empresas = empresaRepository.findByFiltrosConCursor(
+                filtroRazonSocial, filtroSector, scoreMin, scoreMax,
+                sortBy, descendente, valorCursor, idCursor, size + 1);
+
+        String siguienteCursor = null;
+        if (empresas.size() > size) {
+            empresas = empresas.subList(0, size);
+            Empresa ultima = empresas.get(size - 1);
+            Object valorOrden = valorOrden(sortBy, ultima);
+            siguienteCursor = new CursorKeyset(sortBy, descendente,
+                    valorOrden == null ? null : valorOrden.toString(), ultima.getEmpresaId()).codificar();
+        }
+
+        List<EmpresaDTO> contenido = empresas.stream()
+                .map(empresaMapper::toDTOWithoutDocumentos)
+                .collect(Collectors.toList());
+        return PaginaCursor.of(contenido, siguienteCursor);
+    }
+
     @Override
     public void eliminarEmpresa(UUID empresaId) {
         log.info("Eliminando empresa con ID: {}", empresaId);
 
-        if (!empresaRepository.existsById(empresaId)) {
-            throw new ResourceNotFoundException("Empresa no encontrada con ID: " + empresaId);
-        }
+        Empresa empresa = empresaRepository.findById(empresaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Empresa no encontrada con ID: " + empresaId));
 
-        empresaRepository.deleteById(empresaId);
+        // Los documentos se eliminan en cascada con la empresa
+        List<String> urlsDocumentos = empresa.getDocumentos() == null ? List.of() : empresa.getDocumentos().stream()
+                .map(DocumentoEmpresa::getDocumentoUrl)
+                .toList();
+
+        empresaRepository.delete(empresa);
+        empresaCacheService.invalidarEmpresa(empresaId, empresa.getRuc());
+        eventPublisher.publishEvent(new EmpresaModificadaEvent(empresaId));
+        eventPublisher.publishEvent(new DocumentoEmpresaModificadoEvent(empresaId));
+        eventPublisher.publishEvent(new ReferenciasArchivoLiberadasEvent(urlsDocumentos));
         log.info("Empresa eliminada exitosamente: {}", empresaId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarEmpresas(FormatoExportacion formato, OutputStream salida) throws IOException {
+        log.info("Exportando empresas en formato {}", formato);
+
+        long filas = 0;
+        try (Stream<Empresa> empresas = empresaRepository.streamAll();
+             EscritorExportacion escritor = new EscritorExportacion(
+                     formato, COLUMNAS_EXPORTACION, salida, objectMapper)) {
+
+            Iterator<Empresa> iterador = empresas.iterator();
+            while (iterador.hasNext()) {
+                Empresa empresa = iterador.next();
+                escritor.escribirFila(
+                        empresa.getEmpresaId(), empresa.getRuc(), empresa.getRazonSocial(),
+                        empresa.getDireccion(), empresa.getSector(), empresa.getScoreSeguridad());
+
+                // Se libera la entidad del contexto de persistencia para mantener el heap plano
+                entityManager.detach(empresa);
+                if (++filas % FILAS_POR_FLUSH_EXPORTACION == 0) {
+                    escritor.flush();
+                }
+            }
+        }
+
+        log.info("Exportación de empresas finalizada: {} filas", filas);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Double obtenerScorePromedioSeguridad() {
@@ -242,13 +526,15 @@ public class EmpresaServiceImpl implements EmpresaService {
     public Map<String, Object> obtenerEstadisticasGenerales() {
         log.info("Obteniendo estadísticas generales de empresas");
 
+        EstadisticasEmpresasDTO resumen = empresaRepository.findEstadisticasGenerales();
+
         Map<String, Object> estadisticas = new HashMap<>();
-        estadisticas.put("totalEmpresas", empresaRepository.count());
-        estadisticas.put("scorePromedio", obtenerScorePromedioSeguridad());
-        estadisticas.put("empresasScoreAlto", contarEmpresasPorRangoScore(80, 100));
-        estadisticas.put("empresasScoreMedio", contarEmpresasPorRangoScore(50, 79));
-        estadisticas.put("empresasScoreBajo", contarEmpresasPorRangoScore(0, 49));
-        estadisticas.put("totalSectores", obtenerSectoresDisponibles().size());
+        estadisticas.put("totalEmpresas", resumen.getTotalEmpresas());
+        estadisticas.put("scorePromedio", resumen.getScorePromedio());
+        estadisticas.put("empresasScoreAlto", valorOCero(resumen.getEmpresasScoreAlto()));
+        estadisticas.put("empresasScoreMedio", valorOCero(resumen.getEmpresasScoreMedio()));
+        estadisticas.put("empresasScoreBajo", valorOCero(resumen.getEmpresasScoreBajo()));
+        estadisticas.put("totalSectores", resumen.getTotalSectores().intValue());
 
         return estadisticas;
     }
@@ -258,18 +544,16 @@ public class EmpresaServiceImpl implements EmpresaService {
     public Map<String, Long> obtenerDistribucionPorSector() {
         log.info("Obteniendo distribución de empresas por sector");
 
-        List<String> sectores = obtenerSectoresDisponibles();
-        Map<String, Long> distribucion = new HashMap<>();
-
-        for (String sector : sectores) {
-            distribucion.put(sector, contarEmpresasPorSector(sector));
-        }
+        Map<String, Long> distribucion = new LinkedHashMap<>();
+        empresaRepository.countGroupBySector()
+                .forEach(conteo -> distribucion.put(conteo.getSector(), conteo.getCantidad()));
 
         return distribucion;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EXISTE_RUC, key = "#ruc", condition = "#ruc != null")
     public boolean existeRuc(String ruc) {
         return empresaRepository.existsByRuc(ruc);
     }
@@ -285,4 +569,28 @@ public class EmpresaServiceImpl implements EmpresaService {
     public Long contarDocumentosPorEmpresa(UUID empresaId) {
         return empresaRepository.countDocumentosByEmpresaId(empresaId);
     }
+
+    private Object valorOrden(String campo, Empresa empresa) {
+        return switch (campo) {
+            case "razonSocial" -> empresa.getRazonSocial();
+            case "scoreSeguridad" -> empresa.getScoreSeguridad();
+            default -> throw new IllegalArgumentException("No se puede paginar por cursor ordenando por: " + campo);
+        };
+    }
+
+    private Object convertirValorCursor(String campo, String valor) {
+        if (valor == null) {
+            return null;
+        }
+        return switch (campo) {
+            case "razonSocial" -> valor;
+            case "scoreSeguridad" -> Integer.valueOf(valor);
+            default -> throw new IllegalArgumentException("No se puede paginar por cursor ordenando por: " + campo);
+        };
+    }
+
+    // SUM devuelve null cuando la tabla está vacía
+    private Long valorOCero(Long valor) {
+        return valor != null ? valor : 0L;
+    }
 }
@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.gestion_empresas.util;
+
+/**
+ * Utilidades para la búsqueda por similitud respaldada por pg_trgm.
+ */
+public final class BusquedaTexto {
+
+    // Con menos de tres caracteres no hay trigramas y el índice GiST no puede filtrar
+    public static final int LONGITUD_MINIMA = 3;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private BusquedaTexto() {
+    }
+
+    public static String validar(String texto, int limite) {
+        String normalizado = texto == null ? "" : texto.trim();
+        if (normalizado.length() < LONGITUD_MINIMA) {
+            throw new IllegalArgumentException(
+                    "El texto de búsqueda debe tener al menos " + LONGITUD_MINIMA + " caracteres");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return normalizado;
+    }
+}
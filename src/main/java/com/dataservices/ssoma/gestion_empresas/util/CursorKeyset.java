@@ -0,0 +1,90 @@
+package com.dataservices.ssoma.gestion_empresas.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de un recorrido keyset: campo de orden, dirección, valor del campo y
+ * clave primaria del último registro entregado. Se intercambia con el cliente
+ * como un token opaco (Base64 URL) y se traduce a un predicado de búsqueda
+ * (campo, id) que no depende de la profundidad de la página.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorKeyset {
+
+    private static final String SEPARADOR = "|";
+
+    private final String campo;
+
+    private final boolean descendente;
+
+    // Valor del campo de orden en texto; null si la columna era nula
+    private final String valor;
+
+    private final UUID id;
+
+    public String codificar() {
+        String plano = campo + SEPARADOR + (descendente ? "desc" : "asc") + SEPARADOR + id + SEPARADOR
+                + (valor == null ? "N" : "V" + valor);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorKeyset decodificar(String token) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = plano.split("\\|", 4);
+            if (partes.length != 4 || partes[3].isEmpty()) {
+                throw new IllegalArgumentException("Formato de cursor desconocido");
+            }
+
+            boolean descendente = "desc".equals(partes[1]);
+            UUID id = UUID.fromString(partes[2]);
+            String valor = partes[3].charAt(0) == 'N' ? null : partes[3].substring(1);
+            return new CursorKeyset(partes[0], descendente, valor, id);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("El cursor no es válido", ex);
+        }
+    }
+
+    /**
+     * Verifica que el cursor se generó con el mismo ordenamiento que se está solicitando.
+     */
+    public void validarOrden(String campoSolicitado, boolean descendenteSolicitado) {
+        if (!campo.equals(campoSolicitado) || descendente != descendenteSolicitado) {
+            throw new IllegalArgumentException("El cursor no corresponde al ordenamiento solicitado");
+        }
+    }
+
+    /**
+     * Predicado JPQL que selecciona los registros posteriores al cursor con orden
+     * "campo [ASC|DESC] NULLS LAST, id [ASC|DESC]". Usa los parámetros :valorCursor e :idCursor.
+     * Con valor es la comparación de filas (campo, id) > (:valorCursor, :idCursor), que PostgreSQL
+     * resuelve como un único rango del índice; no alcanza a los registros con el campo nulo, que
+     * van al final y se piden aparte con {@link #condicionNulos}.
+     */
+    public static String condicionJpql(String campo, String campoId, boolean descendente, boolean valorNulo) {
+        String operador = descendente ? "<" : ">";
+        if (valorNulo) {
+            return "(" + campo + " IS NULL AND " + campoId + " " + operador + " :idCursor)";
+        }
+        return "(" + campo + ", " + campoId + ") " + operador + " (:valorCursor, :idCursor)";
+    }
+
+    /**
+     * Cola de registros con el campo de orden nulo, que sigue a los que tienen valor.
+     */
+    public static String condicionNulos(String campo) {
+        return campo + " IS NULL";
+    }
+
+    public static String ordenJpql(String campo, String campoId, boolean descendente) {
+        String direccion = descendente ? "DESC" : "ASC";
+        return " ORDER BY " + campo + " " + direccion + " NULLS LAST, " + campoId + " " + direccion;
+    }
+}
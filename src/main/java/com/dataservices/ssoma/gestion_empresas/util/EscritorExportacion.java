@@ -0,0 +1,93 @@
+package com.dataservices.ssoma.gestion_empresas.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe filas de una exportación directamente sobre el stream de salida,
+ * una por línea, sin acumular el resultado en memoria. En NDJSON cada fila es
+ * un objeto JSON con las columnas como atributos; en CSV la primera línea es
+ * la cabecera.
+ */
+public class EscritorExportacion implements Closeable {
+
+    private final FormatoExportacion formato;
+    private final String[] columnas;
+    private final Writer writer;
+    private final JsonGenerator generator;
+
+    public EscritorExportacion(FormatoExportacion formato, String[] columnas,
+                               OutputStream salida, ObjectMapper objectMapper) throws IOException {
+        this.formato = formato;
+        this.columnas = columnas;
+        this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+        if (formato == FormatoExportacion.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // El separador entre objetos es el salto de línea que se escribe en cada fila
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+            escribirLineaCsv(columnas);
+        }
+    }
+
+    public void escribirFila(Object... valores) throws IOException {
+        if (formato == FormatoExportacion.NDJSON) {
+            generator.writeStartObject();
+            for (int i = 0; i < columnas.length; i++) {
+                generator.writeObjectField(columnas[i], valores[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } else {
+            escribirLineaCsv(valores);
+        }
+    }
+
+    public void flush() throws IOException {
+        if (generator != null) {
+            generator.flush();
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.flush();
+    }
+
+    private void escribirLineaCsv(Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escaparCsv(valores[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private String escaparCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0
+                || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dataservices.ssoma.gestion_empresas.util;
+
+public enum FiltroVencimiento {
+
+    TODOS,
+    VENCIDOS,
+    POR_VENCER;
+
+    public static FiltroVencimiento desde(String filtro) {
+        for (FiltroVencimiento valor : values()) {
+            if (valor.name().replace('_', '-').equalsIgnoreCase(filtro)) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Filtro de vencimiento no soportado: " + filtro);
+    }
+}
@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.gestion_empresas.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+@AllArgsConstructor
+public enum FormatoExportacion {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    public static FormatoExportacion desde(String formato) {
+        for (FormatoExportacion valor : values()) {
+            if (valor.extension.equalsIgnoreCase(formato)) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportación no soportado: " + formato);
+    }
+}
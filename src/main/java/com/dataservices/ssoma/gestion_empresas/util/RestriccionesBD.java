@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.gestion_empresas.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+/**
+ * Identifica qué restricción de la base de datos provocó un error de escritura.
+ */
+public final class RestriccionesBD {
+
+    private RestriccionesBD() {
+    }
+
+    /**
+     * Indica si la excepción, o alguna de sus causas, es la violación de la restricción dada.
+     * Sirve tanto para la DataIntegrityViolationException de los repositorios como para la
+     * excepción de Hibernate que lanza el EntityManager al hacer flush.
+     */
+    public static boolean violaRestriccion(Throwable ex, String restriccion) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion) {
+                return restriccion.equalsIgnoreCase(violacion.getConstraintName());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+-- Esquema base tal como lo mapean las entidades. IF NOT EXISTS permite aplicarlo
+-- sobre bases creadas antes de usar migraciones (baseline-version 0).
+
+CREATE TABLE IF NOT EXISTS empresas (
+    empresa_id      UUID         NOT NULL PRIMARY KEY,
+    ruc             VARCHAR(20),
+    razon_social    VARCHAR(255),
+    direccion       VARCHAR(500),
+    sector          VARCHAR(100),
+    score_seguridad INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS documentos_empresa (
+    documento_empresa_id UUID         NOT NULL PRIMARY KEY,
+    empresa_id           UUID         NOT NULL REFERENCES empresas (empresa_id),
+    nombre_documento     VARCHAR(255),
+    fecha_vencimiento    DATE,
+    documento_url        VARCHAR(500)
+);
@@ -0,0 +1,20 @@
+-- Búsqueda por similitud sobre razón social y nombre de documento.
+-- LOWER(col) LIKE '%x%' no puede usar un índice B-tree; un índice de trigramas sí.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() es STABLE y un índice por expresión exige una función IMMUTABLE;
+-- fijar el diccionario hace seguro declararla así
+CREATE OR REPLACE FUNCTION f_normalizar_busqueda(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto)) $$;
+
+-- GiST en lugar de GIN: permite recorrer el índice ya ordenado por distancia (<<->),
+-- así un término frecuente ("minera") no obliga a ordenar todas las coincidencias.
+-- siglen=256 reduce los falsos positivos de la firma en tablas de millones de filas.
+CREATE INDEX IF NOT EXISTS idx_empresas_razon_social_trgm
+    ON empresas USING gist (f_normalizar_busqueda(razon_social) gist_trgm_ops(siglen = 256));
+
+CREATE INDEX IF NOT EXISTS idx_documentos_empresa_nombre_trgm
+    ON documentos_empresa USING gist (f_normalizar_busqueda(nombre_documento) gist_trgm_ops(siglen = 256));
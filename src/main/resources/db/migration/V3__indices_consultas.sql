@@ -0,0 +1,33 @@
+-- Índices B-tree para los predicados de EmpresaRepository y DocumentoEmpresaRepository.
+-- IndicesConsultasTest verifica con EXPLAIN que cada consulta los use.
+
+-- El RUC solo se validaba en el servicio; si ya hay duplicados la migración se detiene
+-- con un mensaje claro en lugar de fallar al crear el índice
+DO $$
+DECLARE
+    duplicados BIGINT;
+BEGIN
+    SELECT COUNT(*) INTO duplicados
+    FROM (SELECT ruc FROM empresas WHERE ruc IS NOT NULL GROUP BY ruc HAVING COUNT(*) > 1) d;
+    IF duplicados > 0 THEN
+        RAISE EXCEPTION 'Hay % RUC repetidos en empresas; corríjalos antes de crear el índice único', duplicados;
+    END IF;
+END $$;
+
+-- findByRuc, findByRucIn, existsByRuc, existsByRucAndEmpresaIdNot
+CREATE UNIQUE INDEX IF NOT EXISTS uk_empresas_ruc ON empresas (ruc);
+
+-- findBySector, countBySector, findDistinctSectores, countGroupBySector
+CREATE INDEX IF NOT EXISTS idx_empresas_sector ON empresas (sector) WHERE sector IS NOT NULL;
+
+-- Rangos de score, top por score y el recorrido keyset ordenado por (score_seguridad, empresa_id)
+CREATE INDEX IF NOT EXISTS idx_empresas_score_seguridad ON empresas (score_seguridad, empresa_id);
+
+-- Consultas por empresa, por empresa y vencimiento, el orden de la exportación
+-- y la verificación de la clave foránea al eliminar una empresa
+CREATE INDEX IF NOT EXISTS idx_documentos_empresa_empresa_vencimiento
+    ON documentos_empresa (empresa_id, fecha_vencimiento);
+
+-- Vencidos, por vencer y rangos de fechas sin filtrar por empresa
+CREATE INDEX IF NOT EXISTS idx_documentos_empresa_vencimiento
+    ON documentos_empresa (fecha_vencimiento) WHERE fecha_vencimiento IS NOT NULL;
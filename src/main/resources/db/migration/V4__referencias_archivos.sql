@@ -0,0 +1,5 @@
+-- Referencias a los archivos deduplicados: documento_url termina en /archivos/download/<sha256>.<ext>.
+-- DocumentoEmpresaRepository.contarReferenciasArchivo usa exactamente esta expresión y este predicado
+CREATE INDEX IF NOT EXISTS idx_documentos_empresa_archivo_sha256
+    ON documentos_empresa ((substring(documento_url from '/archivos/download/([0-9a-f]{64})')))
+    WHERE documento_url ~ '/archivos/download/[0-9a-f]{64}';
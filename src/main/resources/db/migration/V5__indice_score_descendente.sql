@@ -0,0 +1,5 @@
+-- El recorrido keyset descendente ordena por score_seguridad DESC NULLS LAST, empresa_id DESC.
+-- idx_empresas_score_seguridad leído hacia atrás entrega los nulos primero, así que ese orden
+-- necesita su propio índice para resolver (score_seguridad, empresa_id) < (:valor, :id) como rango.
+CREATE INDEX IF NOT EXISTS idx_empresas_score_seguridad_desc
+    ON empresas (score_seguridad DESC NULLS LAST, empresa_id DESC);
@@ -1,10 +1,11 @@
 package com.dataservices.ssoma.gestion_empresas;
 
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class GestionEmpresasApplicationTests {
+@SpringBootTest(properties = "app.upload.dir=target/test-uploads")
+class GestionEmpresasApplicationTests extends PostgresEmbebido {
 
 	@Test
 	void contextLoads() {
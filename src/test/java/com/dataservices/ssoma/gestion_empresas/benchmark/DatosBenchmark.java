@@ -0,0 +1,62 @@
+package com.dataservices.ssoma.gestion_empresas.benchmark;
+
+import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
+import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Datos sintéticos compartidos por los benchmarks, con forma parecida a la de producción.
+ */
+final class DatosBenchmark {
+
+	static final String[] SECTORES = {"Minería", "Construcción", "Pesca", "Energía", "Manufactura"};
+
+	private static final LocalDate FECHA_BASE = LocalDate.of(2026, 1, 1);
+
+	private DatosBenchmark() {
+	}
+
+	static List<Empresa> empresas(int cantidad, int documentosPorEmpresa) {
+		List<Empresa> empresas = new ArrayList<>(cantidad);
+		for (int i = 0; i < cantidad; i++) {
+			Empresa empresa = new Empresa();
+			empresa.setEmpresaId(new UUID(0L, i));
+			empresa.setRuc(String.valueOf(20100000000L + i));
+			empresa.setRazonSocial("Empresa de Servicios Generales " + i + " S.A.C.");
+			empresa.setDireccion("Av. Javier Prado Este " + (100 + i % 5000) + ", San Isidro, Lima");
+			empresa.setSector(SECTORES[i % SECTORES.length]);
+			empresa.setScoreSeguridad(i % 101);
+
+			List<DocumentoEmpresa> documentos = new ArrayList<>(documentosPorEmpresa);
+			for (int j = 0; j < documentosPorEmpresa; j++) {
+				documentos.add(documento(empresa, j));
+			}
+			empresa.setDocumentos(documentos);
+			empresas.add(empresa);
+		}
+		return empresas;
+	}
+
+	static List<DocumentoEmpresa> documentos(List<Empresa> empresas) {
+		List<DocumentoEmpresa> documentos = new ArrayList<>();
+		for (Empresa empresa : empresas) {
+			documentos.addAll(empresa.getDocumentos());
+		}
+		return documentos;
+	}
+
+	private static DocumentoEmpresa documento(Empresa empresa, int indice) {
+		DocumentoEmpresa documento = new DocumentoEmpresa();
+		documento.setDocumentoEmpresaId(new UUID(empresa.getEmpresaId().getLeastSignificantBits(), indice));
+		documento.setEmpresaId(empresa.getEmpresaId());
+		documento.setEmpresa(empresa);
+		documento.setNombreDocumento("Certificado de inspección técnica " + indice);
+		documento.setFechaVencimiento(FECHA_BASE.plusDays(indice * 37L % 730));
+		documento.setDocumentoUrl("20260101_120000_" + Integer.toHexString(indice) + ".pdf");
+		return documento;
+	}
+}
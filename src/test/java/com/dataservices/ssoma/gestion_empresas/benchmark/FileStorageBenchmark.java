@@ -0,0 +1,94 @@
+package com.dataservices.ssoma.gestion_empresas.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.dataservices.ssoma.gestion_empresas.repository.DocumentoEmpresaRepository;
+import com.dataservices.ssoma.gestion_empresas.service.FileStorageService;
+import org.apache.commons.io.FileUtils;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escrituras por segundo de {@link FileStorageService#storeFile} y {@link FileStorageService#storeStream}
+ * según el tamaño del archivo subido.
+ * Los archivos almacenados se borran al terminar cada iteración, fuera de la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileStorageBenchmark {
+
+	@Param({"1024", "65536", "1048576", "10485760"})
+	int bytes;
+
+	// Con deduplicación el contenido repetido solo se escribe la primera vez
+	@Param({"false", "true"})
+	boolean deduplicar;
+
+	private Path directorio;
+	private FileStorageService fileStorageService;
+	private MockMultipartFile archivo;
+	private byte[] contenido;
+
+	@Setup
+	public void preparar() throws IOException {
+		// Sin el log INFO por archivo la salida de JMH sería ilegible
+		((Logger) LoggerFactory.getLogger(FileStorageService.class)).setLevel(ch.qos.logback.classic.Level.WARN);
+
+		directorio = Files.createTempDirectory("benchmark-uploads");
+		fileStorageService = new FileStorageService(Mockito.mock(DocumentoEmpresaRepository.class));
+		ReflectionTestUtils.setField(fileStorageService, "uploadDir", directorio.toString());
+		ReflectionTestUtils.setField(fileStorageService, "tamanoMaximo", DataSize.ofMegabytes(20));
+		ReflectionTestUtils.setField(fileStorageService, "deduplicar", deduplicar);
+		fileStorageService.init();
+
+		contenido = new byte[bytes];
+		ThreadLocalRandom.current().nextBytes(contenido);
+		archivo = new MockMultipartFile("file", "certificado.pdf", "application/pdf", contenido);
+	}
+
+	@TearDown(Level.Iteration)
+	public void limpiar() throws IOException {
+		FileUtils.cleanDirectory(directorio.toFile());
+	}
+
+	@TearDown
+	public void cerrar() throws IOException {
+		FileUtils.deleteDirectory(directorio.toFile());
+	}
+
+	@Benchmark
+	public String storeFile() throws IOException {
+		return fileStorageService.storeFile(archivo);
+	}
+
+	@Benchmark
+	public FileStorageService.ArchivoAlmacenado storeStream() throws IOException {
+		return fileStorageService.storeStream(new ByteArrayInputStream(contenido), "certificado.pdf");
+	}
+}
@@ -0,0 +1,98 @@
+package com.dataservices.ssoma.gestion_empresas.benchmark;
+
+import com.dataservices.ssoma.gestion_empresas.dto.DocumentoEmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
+import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import com.dataservices.ssoma.gestion_empresas.mapper.DocumentoEmpresaMapper;
+import com.dataservices.ssoma.gestion_empresas.mapper.DocumentoEmpresaMapperImpl;
+import com.dataservices.ssoma.gestion_empresas.mapper.EmpresaMapper;
+import com.dataservices.ssoma.gestion_empresas.mapper.EmpresaMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de listas grandes de entidades a DTO con los mappers generados por MapStruct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+	@Param({"1000", "100000"})
+	int empresas;
+
+	@Param({"5"})
+	int documentosPorEmpresa;
+
+	private AnnotationConfigApplicationContext contexto;
+	private EmpresaMapper empresaMapper;
+	private DocumentoEmpresaMapper documentoMapper;
+	private List<Empresa> listaEmpresas;
+	private List<DocumentoEmpresa> listaDocumentos;
+
+	@Setup
+	public void preparar() {
+		// Mismo cableado que en la aplicación: EmpresaMapperImpl recibe DocumentoEmpresaMapper inyectado
+		contexto = new AnnotationConfigApplicationContext(EmpresaMapperImpl.class, DocumentoEmpresaMapperImpl.class);
+		empresaMapper = contexto.getBean(EmpresaMapper.class);
+		documentoMapper = contexto.getBean(DocumentoEmpresaMapper.class);
+		listaEmpresas = DatosBenchmark.empresas(empresas, documentosPorEmpresa);
+		listaDocumentos = DatosBenchmark.documentos(listaEmpresas);
+	}
+
+	@TearDown
+	public void cerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public List<EmpresaDTO> empresaToDTOWithoutDocumentos() {
+		List<EmpresaDTO> resultado = new ArrayList<>(listaEmpresas.size());
+		for (Empresa empresa : listaEmpresas) {
+			resultado.add(empresaMapper.toDTOWithoutDocumentos(empresa));
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<EmpresaDTO> empresaToDTO() {
+		List<EmpresaDTO> resultado = new ArrayList<>(listaEmpresas.size());
+		for (Empresa empresa : listaEmpresas) {
+			resultado.add(empresaMapper.toDTO(empresa));
+		}
+		return resultado;
+	}
+
+	@Benchmark
+	public List<EmpresaDTO> empresaToDTOList() {
+		return empresaMapper.toDTOList(listaEmpresas);
+	}
+
+	@Benchmark
+	public List<DocumentoEmpresaDTO> documentoToDTO() {
+		List<DocumentoEmpresaDTO> resultado = new ArrayList<>(listaDocumentos.size());
+		for (DocumentoEmpresa documento : listaDocumentos) {
+			resultado.add(documentoMapper.toDTO(documento));
+		}
+		return resultado;
+	}
+}
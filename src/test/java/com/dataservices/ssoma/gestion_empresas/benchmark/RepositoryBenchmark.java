@@ -0,0 +1,124 @@
+package com.dataservices.ssoma.gestion_empresas.benchmark;
+
+import com.dataservices.ssoma.gestion_empresas.GestionEmpresasApplication;
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaBusquedaDTO;
+import com.dataservices.ssoma.gestion_empresas.entity.DocumentoEmpresa;
+import com.dataservices.ssoma.gestion_empresas.entity.Empresa;
+import com.dataservices.ssoma.gestion_empresas.repository.DocumentoEmpresaRepository;
+import com.dataservices.ssoma.gestion_empresas.repository.EmpresaRepository;
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de los repositorios contra un PostgreSQL embebido local con las migraciones de Flyway aplicadas.
+ * H2 no sirve aquí: V2 depende de pg_trgm y los planes no serían comparables con producción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	private static final int EMPRESAS = 100_000;
+	private static final int DOCUMENTOS_POR_EMPRESA = 3;
+
+	private EmbeddedPostgres postgres;
+	private ConfigurableApplicationContext contexto;
+	private EmpresaRepository empresaRepository;
+	private DocumentoEmpresaRepository documentoRepository;
+	private UUID[] empresaIds;
+	private int siguiente;
+
+	@Setup
+	public void preparar() throws IOException {
+		postgres = EmbeddedPostgres.start();
+		List<String> argumentos = new ArrayList<>(PostgresEmbebido.argumentosConexion(postgres));
+		argumentos.add("--logging.level.root=WARN");
+		// Los recálculos periódicos meterían ruido en la medición
+		argumentos.add("--app.estadisticas.revision=PT1H");
+		argumentos.add("--app.estadisticas.refresco-completo=PT24H");
+		argumentos.add("--app.autocompletado.reconstruccion=PT24H");
+		contexto = new SpringApplicationBuilder(GestionEmpresasApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(argumentos.toArray(String[]::new));
+
+		JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("INSERT INTO empresas (empresa_id, ruc, razon_social, direccion, sector, score_seguridad) " +
+				"SELECT md5(i::text)::uuid, (20100000000 + i)::text, 'Empresa de Servicios Generales ' || i || ' S.A.C.', " +
+				"'Av. Javier Prado Este ' || i, (ARRAY['Minería', 'Construcción', 'Pesca', 'Energía', 'Manufactura'])[1 + i % 5], " +
+				"i % 101 FROM generate_series(1, ?) i", EMPRESAS);
+		jdbcTemplate.update("INSERT INTO documentos_empresa (documento_empresa_id, empresa_id, nombre_documento, fecha_vencimiento) " +
+				"SELECT md5('d' || i)::uuid, md5((1 + i % ?)::text)::uuid, 'Certificado de inspección ' || i, " +
+				"DATE '2026-01-01' + i % 730 FROM generate_series(1, ?) i", EMPRESAS, EMPRESAS * DOCUMENTOS_POR_EMPRESA);
+		jdbcTemplate.execute("ANALYZE");
+		empresaIds = jdbcTemplate.queryForList("SELECT empresa_id FROM empresas ORDER BY ruc", UUID.class)
+				.toArray(UUID[]::new);
+
+		empresaRepository = contexto.getBean(EmpresaRepository.class);
+		documentoRepository = contexto.getBean(DocumentoEmpresaRepository.class);
+	}
+
+	@TearDown
+	public void cerrar() throws IOException {
+		contexto.close();
+		postgres.close();
+	}
+
+	// Recorre claves distintas en cada llamada para no medir siempre la misma página en caché
+	private int siguienteIndice() {
+		siguiente = siguiente % EMPRESAS + 1;
+		return siguiente;
+	}
+
+	@Benchmark
+	public Optional<Empresa> findByRuc() {
+		return empresaRepository.findByRuc(String.valueOf(20100000000L + siguienteIndice()));
+	}
+
+	@Benchmark
+	public Page<Empresa> findBySectorPaginado() {
+		return empresaRepository.findBySector(DatosBenchmark.SECTORES[siguienteIndice() % 5], PageRequest.of(0, 20));
+	}
+
+	@Benchmark
+	public List<Empresa> findByFiltrosConCursor() {
+		return empresaRepository.findByFiltrosConCursor(
+				null, null, 40, null, "scoreSeguridad", false, null, null, 20);
+	}
+
+	@Benchmark
+	public List<EmpresaBusquedaDTO> buscarPorSimilitud() {
+		return empresaRepository.buscarPorSimilitud("servicios generales " + siguienteIndice(), 10);
+	}
+
+	@Benchmark
+	public List<DocumentoEmpresa> documentosPorEmpresa() {
+		return documentoRepository.findByEmpresaId(empresaIds[siguienteIndice() - 1]);
+	}
+}
@@ -0,0 +1,79 @@
+package com.dataservices.ssoma.gestion_empresas.benchmark;
+
+import com.dataservices.ssoma.gestion_empresas.dto.EmpresaDTO;
+import com.dataservices.ssoma.gestion_empresas.dto.response.ApiResponse;
+import com.dataservices.ssoma.gestion_empresas.mapper.DocumentoEmpresaMapperImpl;
+import com.dataservices.ssoma.gestion_empresas.mapper.EmpresaMapper;
+import com.dataservices.ssoma.gestion_empresas.mapper.EmpresaMapperImpl;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de {@code ApiResponse<List<EmpresaDTO>>}, la respuesta de los listados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+	@Param({"20", "1000", "10000"})
+	int empresas;
+
+	@Param({"0", "5"})
+	int documentosPorEmpresa;
+
+	private ObjectWriter writer;
+	private ApiResponse<List<EmpresaDTO>> respuesta;
+
+	@Setup
+	public void preparar() {
+		// Misma configuración que spring.jackson en application.yml
+		writer = new Jackson2ObjectMapperBuilder()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.dateFormat(new SimpleDateFormat("yyyy-MM-dd"))
+				.build()
+				.writer();
+
+		try (AnnotationConfigApplicationContext contexto =
+					 new AnnotationConfigApplicationContext(EmpresaMapperImpl.class, DocumentoEmpresaMapperImpl.class)) {
+			EmpresaMapper mapper = contexto.getBean(EmpresaMapper.class);
+			List<EmpresaDTO> dtos = DatosBenchmark.empresas(empresas, documentosPorEmpresa).stream()
+					.map(documentosPorEmpresa == 0 ? mapper::toDTOWithoutDocumentos : mapper::toDTO)
+					.toList();
+			respuesta = ApiResponse.success("Empresas obtenidas exitosamente", dtos);
+		}
+	}
+
+	@Benchmark
+	public byte[] aBytes() throws IOException {
+		return writer.writeValueAsBytes(respuesta);
+	}
+
+	@Benchmark
+	public void aStream() throws IOException {
+		// Escritura directa al stream de salida, como hace MappingJackson2HttpMessageConverter
+		writer.writeValue(OutputStream.nullOutputStream(), respuesta);
+	}
+}
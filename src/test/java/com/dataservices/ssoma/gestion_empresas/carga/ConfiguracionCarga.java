@@ -0,0 +1,50 @@
+package com.dataservices.ssoma.gestion_empresas.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de argumentos {@code clave=valor}.
+ */
+record ConfiguracionCarga(
+		int empresas,
+		int documentosPorEmpresa,
+		int archivosPrevios,
+		int hilos,
+		Duration calentamiento,
+		Duration duracion,
+		long semilla,
+		Path salida) {
+
+	static ConfiguracionCarga desdeArgumentos(String[] args) {
+		Map<String, String> valores = new HashMap<>();
+		for (String arg : args) {
+			int separador = arg.indexOf('=');
+			if (separador <= 0) {
+				throw new IllegalArgumentException("Argumento inválido, se esperaba clave=valor: " + arg);
+			}
+			valores.put(arg.substring(0, separador), arg.substring(separador + 1));
+		}
+
+		ConfiguracionCarga configuracion = new ConfiguracionCarga(
+				Integer.parseInt(tomar(valores, "empresas", "10000")),
+				Integer.parseInt(tomar(valores, "documentosPorEmpresa", "5")),
+				Integer.parseInt(tomar(valores, "archivosPrevios", "50")),
+				Integer.parseInt(tomar(valores, "hilos", "16")),
+				Duration.parse(tomar(valores, "calentamiento", "PT15S")),
+				Duration.parse(tomar(valores, "duracion", "PT60S")),
+				Long.parseLong(tomar(valores, "semilla", "42")),
+				Path.of(tomar(valores, "salida", "target/carga/informe-carga.json")));
+		if (!valores.isEmpty()) {
+			throw new IllegalArgumentException("Parámetros desconocidos: " + valores.keySet());
+		}
+		return configuracion;
+	}
+
+	private static String tomar(Map<String, String> valores, String clave, String porDefecto) {
+		String valor = valores.remove(clave);
+		return valor != null ? valor : porDefecto;
+	}
+}
@@ -0,0 +1,168 @@
+package com.dataservices.ssoma.gestion_empresas.carga;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Mezcla ponderada de peticiones sobre EmpresaController, DocumentoEmpresaController y FileUploadController.
+ * Los pesos aproximan el tráfico de producción: sobre todo listados y consultas por empresa,
+ * con una fracción menor de resúmenes de vencimiento, subidas y descargas.
+ * Cada endpoint se reporta por su plantilla de ruta para que los informes se puedan comparar.
+ */
+class MezclaCarga {
+
+	private static final String[] SECTORES = Stream.of("Minería", "Construcción", "Pesca", "Energía", "Manufactura")
+			.map(sector -> URLEncoder.encode(sector, StandardCharsets.UTF_8))
+			.toArray(String[]::new);
+	private static final String[] ORDEN_EMPRESAS = {"razonSocial", "scoreSeguridad", "ruc"};
+	private static final int[] TAMANIOS_SUBIDA = {16 * 1024, 256 * 1024, 1024 * 1024};
+	private static final String LIMITE_MULTIPART = "----limite-prueba-carga";
+	private static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(60);
+
+	private final String base;
+	private final List<UUID> empresaIds;
+	private final List<String> archivos;
+	private final byte[][] contenidosSubida;
+	private final byte[][] cuerposSubida;
+	private final Operacion[] operaciones;
+	private final int pesoTotal;
+
+	MezclaCarga(String base, List<UUID> empresaIds, List<String> archivos) {
+		this.base = base;
+		this.empresaIds = empresaIds;
+		this.archivos = archivos;
+		this.contenidosSubida = new byte[TAMANIOS_SUBIDA.length][];
+		this.cuerposSubida = new byte[TAMANIOS_SUBIDA.length][];
+		SplittableRandom random = new SplittableRandom(0);
+		for (int i = 0; i < TAMANIOS_SUBIDA.length; i++) {
+			contenidosSubida[i] = contenido(TAMANIOS_SUBIDA[i], random);
+			cuerposSubida[i] = cuerpoMultipart(contenidosSubida[i]);
+		}
+
+		this.operaciones = new Operacion[]{
+				new Operacion("GET /api/v1/empresas/paginado", 16, (m, r) -> m.get(
+						"/api/v1/empresas/paginado?page=" + r.nextInt(50) + "&size=20&sortBy=" + elegir(ORDEN_EMPRESAS, r))),
+				new Operacion("GET /api/v1/empresas/cursor", 10, (m, r) -> m.get(
+						"/api/v1/empresas/cursor?sector=" + elegir(SECTORES, r) + "&size=20&sortBy=scoreSeguridad")),
+				new Operacion("GET /api/v1/empresas/filtros", 10, (m, r) -> m.get(
+						"/api/v1/empresas/filtros?sector=" + elegir(SECTORES, r) + "&scoreMin=" + r.nextInt(80)
+								+ "&page=0&size=20")),
+				new Operacion("GET /api/v1/empresas/{empresaId}", 10, (m, r) -> m.get(
+						"/api/v1/empresas/" + m.empresa(r))),
+				new Operacion("GET /api/v1/empresas/autocompletar", 8, (m, r) -> m.get(
+						"/api/v1/empresas/autocompletar?texto=" + (r.nextBoolean()
+								? "2010" + r.nextInt(1000)
+								: "generales%20" + r.nextInt(1000)) + "&limite=10")),
+				new Operacion("GET /api/v1/empresas/estadisticas", 3, (m, r) -> m.get(
+						"/api/v1/empresas/estadisticas")),
+				new Operacion("GET /api/v1/documentos-empresa/empresa/{empresaId}/paginado", 10, (m, r) -> m.get(
+						"/api/v1/documentos-empresa/empresa/" + m.empresa(r) + "/paginado?page=0&size=10")),
+				new Operacion("GET /api/v1/documentos-empresa/listado", 5, (m, r) -> {
+					LocalDate desde = LocalDate.of(2026, 1, 1).plusDays(r.nextInt(700));
+					return m.get("/api/v1/documentos-empresa/listado?fechaDesde=" + desde
+							+ "&fechaHasta=" + desde.plusDays(30) + "&size=100");
+				}),
+				new Operacion("GET /api/v1/documentos-empresa/empresa/{empresaId}/resumen-vencimientos", 8, (m, r) -> m.get(
+						"/api/v1/documentos-empresa/empresa/" + m.empresa(r) + "/resumen-vencimientos")),
+				new Operacion("GET /api/v1/documentos-empresa/resumen-vencimientos", 4, (m, r) -> m.get(
+						"/api/v1/documentos-empresa/resumen-vencimientos?horizontes=30&horizontes=60&horizontes=90")),
+				new Operacion("GET /api/v1/documentos-empresa/por-vencer", 2, (m, r) -> m.get(
+						"/api/v1/documentos-empresa/por-vencer?diasAnticipacion=" + (7 + r.nextInt(24)))),
+				new Operacion("GET /api/v1/archivos/download/{fileName}", 10, (m, r) -> m.get(
+						"/api/v1/archivos/download/" + m.archivos.get(r.nextInt(m.archivos.size())))),
+				new Operacion("POST /api/v1/archivos/upload", 2, (m, r) -> m.subida(
+						m.cuerposSubida[r.nextInt(m.cuerposSubida.length)])),
+				new Operacion("POST /api/v1/archivos/upload (streaming)", 2, (m, r) -> m.subidaStreaming(
+						m.contenidosSubida[r.nextInt(m.contenidosSubida.length)]))
+		};
+		int suma = 0;
+		for (Operacion operacion : operaciones) {
+			suma += operacion.peso();
+		}
+		this.pesoTotal = suma;
+	}
+
+	Operacion elegir(SplittableRandom random) {
+		int valor = random.nextInt(pesoTotal);
+		for (Operacion operacion : operaciones) {
+			valor -= operacion.peso();
+			if (valor < 0) {
+				return operacion;
+			}
+		}
+		throw new IllegalStateException("Pesos de la mezcla inconsistentes");
+	}
+
+	HttpRequest construir(Operacion operacion, SplittableRandom random) {
+		return operacion.generador().apply(this, random);
+	}
+
+	/**
+	 * Subida con el mismo contenido de la mezcla, usada para preparar los archivos que luego se descargan.
+	 */
+	HttpRequest subidaInicial(SplittableRandom random) {
+		return subida(cuerposSubida[random.nextInt(cuerposSubida.length)]);
+	}
+
+	private HttpRequest get(String ruta) {
+		return HttpRequest.newBuilder(URI.create(base + ruta))
+				.timeout(TIEMPO_MAXIMO)
+				.GET()
+				.build();
+	}
+
+	private HttpRequest subida(byte[] cuerpo) {
+		return HttpRequest.newBuilder(URI.create(base + "/api/v1/archivos/upload"))
+				.timeout(TIEMPO_MAXIMO)
+				.header("Content-Type", "multipart/form-data; boundary=" + LIMITE_MULTIPART)
+				.POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo))
+				.build();
+	}
+
+	private HttpRequest subidaStreaming(byte[] contenido) {
+		return HttpRequest.newBuilder(URI.create(base + "/api/v1/archivos/upload?nombre=certificado.pdf"))
+				.timeout(TIEMPO_MAXIMO)
+				.header("Content-Type", "application/octet-stream")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(contenido))
+				.build();
+	}
+
+	private UUID empresa(SplittableRandom random) {
+		return empresaIds.get(random.nextInt(empresaIds.size()));
+	}
+
+	private static String elegir(String[] valores, SplittableRandom random) {
+		return valores[random.nextInt(valores.length)];
+	}
+
+	private static byte[] contenido(int bytes, SplittableRandom random) {
+		byte[] contenido = new byte[bytes];
+		for (int i = 0; i < bytes; i++) {
+			contenido[i] = (byte) random.nextInt(256);
+		}
+		return contenido;
+	}
+
+	private static byte[] cuerpoMultipart(byte[] contenido) {
+		ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(contenido.length + 256);
+		cuerpo.writeBytes(("--" + LIMITE_MULTIPART + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"certificado.pdf\"\r\n"
+				+ "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		cuerpo.writeBytes(contenido);
+		cuerpo.writeBytes(("\r\n--" + LIMITE_MULTIPART + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+		return cuerpo.toByteArray();
+	}
+
+	record Operacion(String endpoint, int peso, BiFunction<MezclaCarga, SplittableRandom, HttpRequest> generador) {
+	}
+}
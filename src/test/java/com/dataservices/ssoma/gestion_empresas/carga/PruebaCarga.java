@@ -0,0 +1,198 @@
+package com.dataservices.ssoma.gestion_empresas.carga;
+
+import com.dataservices.ssoma.gestion_empresas.GestionEmpresasApplication;
+import com.dataservices.ssoma.gestion_empresas.service.AutocompletadoEmpresasService;
+import com.dataservices.ssoma.gestion_empresas.service.EstadisticasSnapshotService;
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba de carga de la API REST. Levanta la aplicación contra un PostgreSQL embebido,
+ * siembra empresas y documentos, reproduce {@link MezclaCarga} con hilos en lazo cerrado
+ * y escribe p50/p95/p99 y throughput por endpoint en un JSON comparable entre builds.
+ *
+ * <pre>mvn -Pcarga verify -DskipTests -Dcarga.args="empresas=50000 hilos=32 duracion=PT2M"</pre>
+ */
+@Slf4j
+public class PruebaCarga {
+
+	public static void main(String[] args) throws Exception {
+		ConfiguracionCarga configuracion = ConfiguracionCarga.desdeArgumentos(args);
+		Path directorioArchivos = Files.createTempDirectory("carga-uploads");
+
+		try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+			 ConfigurableApplicationContext contexto = iniciarAplicacion(postgres, directorioArchivos)) {
+
+			List<UUID> empresaIds = sembrar(contexto, configuracion);
+			String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+			HttpClient cliente = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5))
+					.build();
+
+			List<String> archivos = new ArrayList<>();
+			MezclaCarga mezcla = new MezclaCarga(base, empresaIds, archivos);
+			archivos.addAll(subirArchivosPrevios(cliente, mezcla, configuracion));
+
+			log.info("Calentamiento durante {}", configuracion.calentamiento());
+			ejecutar(cliente, mezcla, configuracion, configuracion.calentamiento(), configuracion.semilla() - 1);
+
+			log.info("Medición durante {} con {} hilos", configuracion.duracion(), configuracion.hilos());
+			long inicio = System.nanoTime();
+			List<RegistroLatencias> registros =
+					ejecutar(cliente, mezcla, configuracion, configuracion.duracion(), configuracion.semilla());
+			double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+			Map<String, RegistroLatencias.ResumenEndpoint> resumen = RegistroLatencias.resumir(registros, segundos);
+			escribirInforme(configuracion, resumen, segundos);
+			resumen.forEach((endpoint, r) -> log.info("{} -> {} peticiones, {} errores, {} rps, p50 {} ms, p95 {} ms, p99 {} ms",
+					endpoint, r.peticiones(), r.errores(), r.throughputRps(), r.p50Ms(), r.p95Ms(), r.p99Ms()));
+		} finally {
+			FileUtils.deleteDirectory(directorioArchivos.toFile());
+		}
+	}
+
+	private static ConfigurableApplicationContext iniciarAplicacion(EmbeddedPostgres postgres, Path directorioArchivos) {
+		// devtools está en el classpath de test y relanzaría main en otro hilo con estos argumentos
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		List<String> argumentos = new ArrayList<>(PostgresEmbebido.argumentosConexion(postgres));
+		argumentos.add("--server.port=0");
+		argumentos.add("--app.upload.dir=" + directorioArchivos);
+		// Los logs por petición a consola serían el cuello de botella de la prueba
+		argumentos.add("--logging.level.root=WARN");
+		argumentos.add("--logging.level.com.dataservices.ssoma.gestion_empresas.carga=INFO");
+		return new SpringApplicationBuilder(GestionEmpresasApplication.class).run(argumentos.toArray(String[]::new));
+	}
+
+	private static List<UUID> sembrar(ConfigurableApplicationContext contexto, ConfiguracionCarga configuracion) {
+		log.info("Sembrando {} empresas con {} documentos cada una",
+				configuracion.empresas(), configuracion.documentosPorEmpresa());
+		JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("INSERT INTO empresas (empresa_id, ruc, razon_social, direccion, sector, score_seguridad) " +
+				"SELECT md5(i::text)::uuid, (20100000000 + i)::text, 'Empresa de Servicios Generales ' || i || ' S.A.C.', " +
+				"'Av. Javier Prado Este ' || i, (ARRAY['Minería', 'Construcción', 'Pesca', 'Energía', 'Manufactura'])[1 + i % 5], " +
+				"i % 101 FROM generate_series(1, ?) i", configuracion.empresas());
+		jdbcTemplate.update("INSERT INTO documentos_empresa (documento_empresa_id, empresa_id, nombre_documento, fecha_vencimiento) " +
+				"SELECT md5('d' || i)::uuid, md5((1 + i % ?)::text)::uuid, 'Certificado de inspección ' || i, " +
+				"DATE '2026-01-01' + i % 730 FROM generate_series(1, ?) i",
+				configuracion.empresas(), configuracion.empresas() * configuracion.documentosPorEmpresa());
+		jdbcTemplate.execute("ANALYZE");
+
+		// Los datos se insertaron por fuera de los servicios: el índice y los snapshots no los vieron
+		contexto.getBean(AutocompletadoEmpresasService.class).reconstruir();
+		contexto.getBean(EstadisticasSnapshotService.class).refrescarTodo();
+
+		return jdbcTemplate.queryForList("SELECT empresa_id FROM empresas", UUID.class);
+	}
+
+	private static List<String> subirArchivosPrevios(
+			HttpClient cliente, MezclaCarga mezcla, ConfiguracionCarga configuracion) throws IOException, InterruptedException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		SplittableRandom random = new SplittableRandom(configuracion.semilla());
+		List<String> archivos = new ArrayList<>(configuracion.archivosPrevios());
+		for (int i = 0; i < configuracion.archivosPrevios(); i++) {
+			HttpResponse<String> respuesta = cliente.send(mezcla.subidaInicial(random), HttpResponse.BodyHandlers.ofString());
+			if (respuesta.statusCode() != 201) {
+				throw new IllegalStateException("No se pudo preparar el archivo de descarga: " + respuesta.body());
+			}
+			JsonNode cuerpo = objectMapper.readTree(respuesta.body());
+			archivos.add(cuerpo.path("data").path("fileName").asText());
+		}
+		return archivos;
+	}
+
+	private static List<RegistroLatencias> ejecutar(HttpClient cliente, MezclaCarga mezcla,
+			ConfiguracionCarga configuracion, Duration duracion, long semilla) throws Exception {
+		long fin = System.nanoTime() + duracion.toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(configuracion.hilos());
+		try {
+			List<Future<RegistroLatencias>> futuros = new ArrayList<>();
+			for (int i = 0; i < configuracion.hilos(); i++) {
+				SplittableRandom random = new SplittableRandom(semilla * 31 + i);
+				futuros.add(executor.submit(() -> ejecutarHilo(cliente, mezcla, random, fin)));
+			}
+			List<RegistroLatencias> registros = new ArrayList<>(futuros.size());
+			for (Future<RegistroLatencias> futuro : futuros) {
+				registros.add(futuro.get());
+			}
+			return registros;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static RegistroLatencias ejecutarHilo(HttpClient cliente, MezclaCarga mezcla, SplittableRandom random, long fin) {
+		RegistroLatencias registro = new RegistroLatencias();
+		while (System.nanoTime() < fin) {
+			MezclaCarga.Operacion operacion = mezcla.elegir(random);
+			HttpRequest peticion = mezcla.construir(operacion, random);
+			long inicio = System.nanoTime();
+			boolean error;
+			try {
+				// Se consume el cuerpo completo: la latencia incluye la transferencia de la respuesta
+				HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+				error = respuesta.statusCode() >= 400;
+			} catch (IOException ex) {
+				error = true;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			registro.registrar(operacion.endpoint(), System.nanoTime() - inicio, error);
+		}
+		return registro;
+	}
+
+	private static void escribirInforme(ConfiguracionCarga configuracion,
+			Map<String, RegistroLatencias.ResumenEndpoint> resumen, double segundos) throws IOException {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		parametros.put("empresas", configuracion.empresas());
+		parametros.put("documentos_por_empresa", configuracion.documentosPorEmpresa());
+		parametros.put("archivos_previos", configuracion.archivosPrevios());
+		parametros.put("hilos", configuracion.hilos());
+		parametros.put("calentamiento", configuracion.calentamiento().toString());
+		parametros.put("duracion", configuracion.duracion().toString());
+		parametros.put("semilla", configuracion.semilla());
+
+		Map<String, Object> informe = new LinkedHashMap<>();
+		informe.put("generado", Instant.now().toString());
+		informe.put("configuracion", parametros);
+		informe.put("segundos_medidos", Math.round(segundos * 1000) / 1000.0);
+		informe.put("endpoints", resumen);
+
+		Path salida = configuracion.salida().toAbsolutePath();
+		Files.createDirectories(salida.getParent());
+		new ObjectMapper()
+				.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+				.enable(SerializationFeature.INDENT_OUTPUT)
+				.writeValue(salida.toFile(), informe);
+		log.info("Informe de carga escrito en {}", salida);
+	}
+}
@@ -0,0 +1,110 @@
+package com.dataservices.ssoma.gestion_empresas.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencias de un hilo de carga agrupadas por endpoint. Cada hilo tiene su propio registro
+ * y se combinan al final, así la medición no comparte estado entre hilos.
+ */
+class RegistroLatencias {
+
+	private final Map<String, Muestras> porEndpoint = new TreeMap<>();
+
+	void registrar(String endpoint, long nanos, boolean error) {
+		Muestras muestras = porEndpoint.computeIfAbsent(endpoint, e -> new Muestras());
+		muestras.agregar(nanos);
+		if (error) {
+			muestras.errores++;
+		}
+	}
+
+	static Map<String, ResumenEndpoint> resumir(List<RegistroLatencias> registros, double segundos) {
+		Map<String, List<Muestras>> agrupadas = new TreeMap<>();
+		for (RegistroLatencias registro : registros) {
+			registro.porEndpoint.forEach((endpoint, muestras) ->
+					agrupadas.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(muestras));
+		}
+
+		Map<String, ResumenEndpoint> resumen = new TreeMap<>();
+		Muestras total = new Muestras();
+		agrupadas.forEach((endpoint, lista) -> {
+			Muestras combinadas = new Muestras();
+			lista.forEach(combinadas::agregarTodas);
+			total.agregarTodas(combinadas);
+			resumen.put(endpoint, combinadas.resumir(segundos));
+		});
+		resumen.put("TOTAL", total.resumir(segundos));
+		return resumen;
+	}
+
+	record ResumenEndpoint(
+			long peticiones,
+			long errores,
+			double throughputRps,
+			double p50Ms,
+			double p95Ms,
+			double p99Ms,
+			double maximoMs,
+			double mediaMs) {
+	}
+
+	private static class Muestras {
+
+		private long[] nanos = new long[1024];
+		private int cantidad;
+		private long errores;
+
+		void agregar(long valor) {
+			if (cantidad == nanos.length) {
+				nanos = Arrays.copyOf(nanos, cantidad * 2);
+			}
+			nanos[cantidad++] = valor;
+		}
+
+		void agregarTodas(Muestras otras) {
+			for (int i = 0; i < otras.cantidad; i++) {
+				agregar(otras.nanos[i]);
+			}
+			errores += otras.errores;
+		}
+
+		ResumenEndpoint resumir(double segundos) {
+			long[] ordenadas = Arrays.copyOf(nanos, cantidad);
+			Arrays.sort(ordenadas);
+			double suma = 0;
+			for (long valor : ordenadas) {
+				suma += valor;
+			}
+			return new ResumenEndpoint(
+					cantidad,
+					errores,
+					redondear(cantidad / segundos),
+					percentil(ordenadas, 0.50),
+					percentil(ordenadas, 0.95),
+					percentil(ordenadas, 0.99),
+					cantidad == 0 ? 0 : milisegundos(ordenadas[cantidad - 1]),
+					cantidad == 0 ? 0 : redondear(suma / cantidad / 1_000_000.0));
+		}
+
+		// Rango más cercano: el menor valor que cubre la fracción pedida de las muestras
+		private static double percentil(long[] ordenadas, double fraccion) {
+			if (ordenadas.length == 0) {
+				return 0;
+			}
+			int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+			return milisegundos(ordenadas[Math.max(indice, 0)]);
+		}
+
+		private static double milisegundos(long nanos) {
+			return redondear(nanos / 1_000_000.0);
+		}
+
+		private static double redondear(double valor) {
+			return Math.round(valor * 1000) / 1000.0;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.dataservices.ssoma.gestion_empresas.controller;
+
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Descargas por sendfile en el Tomcat embebido, el único que anuncia
+ * org.apache.tomcat.sendfile.support (MockMvc no lo hace). El archivo de 64KB
+ * supera app.descarga.sendfile-minimo, así que no cae en el camino servlet.
+ */
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"app.upload.dir=target/test-uploads-sendfile",
+				"app.upload.tamano-maximo=1MB",
+				"app.descarga.modo=sendfile",
+				"app.descarga.sendfile-minimo=48KB"})
+class DescargaSendfileTest extends PostgresEmbebido {
+
+	private static final int TAMANO = 64 * 1024;
+
+	private static final byte[] CONTENIDO = contenido();
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	private int puerto;
+
+	private String fileName;
+
+	@BeforeEach
+	void subir() throws Exception {
+		HttpRequest peticion = HttpRequest.newBuilder(url("/api/v1/archivos/upload?nombre=sendfile.bin"))
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+				.POST(HttpRequest.BodyPublishers.ofByteArray(CONTENIDO))
+				.build();
+		HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(respuesta.statusCode()).isEqualTo(201);
+		fileName = JsonPath.read(respuesta.body(), "$.data.fileName");
+	}
+
+	@Test
+	void archivoCompleto() throws Exception {
+		HttpResponse<byte[]> respuesta = descargar(null);
+
+		assertThat(respuesta.statusCode()).isEqualTo(200);
+		assertThat(respuesta.headers().firstValue(HttpHeaders.CONTENT_LENGTH)).hasValue(String.valueOf(TAMANO));
+		assertThat(respuesta.headers().firstValue(HttpHeaders.CONTENT_RANGE)).isEmpty();
+		assertThat(respuesta.body()).isEqualTo(CONTENIDO);
+	}
+
+	@Test
+	void rangoSimple() throws Exception {
+		HttpResponse<byte[]> respuesta = descargar("bytes=10-19");
+
+		assertThat(respuesta.statusCode()).isEqualTo(206);
+		assertThat(respuesta.headers().firstValue(HttpHeaders.CONTENT_RANGE)).hasValue("bytes 10-19/" + TAMANO);
+		assertThat(respuesta.headers().firstValue(HttpHeaders.CONTENT_LENGTH)).hasValue("10");
+		assertThat(respuesta.body()).isEqualTo(Arrays.copyOfRange(CONTENIDO, 10, 20));
+	}
+
+	@Test
+	void rangoFinal() throws Exception {
+		HttpResponse<byte[]> respuesta = descargar("bytes=-5");
+
+		assertThat(respuesta.statusCode()).isEqualTo(206);
+		assertThat(respuesta.headers().firstValue(HttpHeaders.CONTENT_RANGE))
+				.hasValue("bytes " + (TAMANO - 5) + "-" + (TAMANO - 1) + "/" + TAMANO);
+		assertThat(respuesta.body()).isEqualTo(Arrays.copyOfRange(CONTENIDO, TAMANO - 5, TAMANO));
+	}
+
+	// Varios rangos o uno fuera del archivo los resuelve el camino servlet
+	@Test
+	void variosRangosVuelvenAlCaminoServlet() throws Exception {
+		HttpResponse<byte[]> respuesta = descargar("bytes=0-2,10-12");
+
+		assertThat(respuesta.statusCode()).isEqualTo(206);
+		assertThat(respuesta.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(
+				tipo -> assertThat(tipo).startsWith("multipart/byteranges"));
+	}
+
+	@Test
+	void rangoInsatisfacible() throws Exception {
+		assertThat(descargar("bytes=" + TAMANO + "-").statusCode()).isEqualTo(416);
+	}
+
+	private HttpResponse<byte[]> descargar(String rango) throws Exception {
+		HttpRequest.Builder peticion = HttpRequest.newBuilder(url("/api/v1/archivos/download/" + fileName)).GET();
+		if (rango != null) {
+			peticion.header(HttpHeaders.RANGE, rango);
+		}
+		return cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private URI url(String ruta) {
+		return URI.create("http://localhost:" + puerto + ruta);
+	}
+
+	// Bytes que no se repiten cada 10 posiciones, para que un desplazamiento equivocado no pase desapercibido
+	private static byte[] contenido() {
+		byte[] bytes = new byte[TAMANO];
+		for (int i = 0; i < TAMANO; i++) {
+			bytes[i] = (byte) (i % 251);
+		}
+		return bytes;
+	}
+}
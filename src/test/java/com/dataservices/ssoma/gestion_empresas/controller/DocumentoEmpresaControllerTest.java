@@ -0,0 +1,158 @@
+package com.dataservices.ssoma.gestion_empresas.controller;
+
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listado general de documentos con y sin los filtros opcionales, sobre los datos de {@link PostgresEmbebido}.
+ */
+@SpringBootTest(properties = "app.upload.dir=target/test-uploads")
+@AutoConfigureMockMvc
+class DocumentoEmpresaControllerTest extends PostgresEmbebido {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void listadoSinFiltros() throws Exception {
+		mockMvc.perform(get("/api/v1/documentos-empresa/listado").param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.contenido.length()").value(20))
+				.andExpect(jsonPath("$.data.tiene_mas").value(true))
+				.andExpect(jsonPath("$.data.siguiente_cursor").isNotEmpty());
+	}
+
+	@Test
+	void listadoSinFiltrosRecorreTodosLosDocumentos() throws Exception {
+		Set<String> vistos = new HashSet<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder peticion = get("/api/v1/documentos-empresa/listado").param("size", "300");
+			if (cursor != null) {
+				peticion.param("cursor", cursor);
+			}
+			String respuesta = mockMvc.perform(peticion)
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			List<String> ids = JsonPath.read(respuesta, "$.data.contenido[*].documento_empresa_id");
+			vistos.addAll(ids);
+			cursor = JsonPath.read(respuesta, "$.data.siguiente_cursor");
+		} while (cursor != null);
+
+		assertThat(vistos).hasSize(800);
+	}
+
+	@Test
+	void listadoConRangoDeFechas() throws Exception {
+		// i % 90 entre 0 y 9: 10 por cada uno de los 8 ciclos completos y 10 del ciclo final
+		mockMvc.perform(get("/api/v1/documentos-empresa/listado")
+						.param("fechaDesde", "2026-01-01")
+						.param("fechaHasta", "2026-01-10")
+						.param("size", "1000"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.contenido.length()").value(90))
+				.andExpect(jsonPath("$.data.contenido[*].fecha_vencimiento", everyItem(greaterThanOrEqualTo("2026-01-01"))))
+				.andExpect(jsonPath("$.data.contenido[*].fecha_vencimiento", everyItem(lessThanOrEqualTo("2026-01-10"))));
+	}
+
+	@Test
+	void listadoPorNombreYEmpresa() throws Exception {
+		// "Documento 79" y "Documento 790" a "Documento 799"; de ellos, los de la empresa 40 (i % 40 = 39)
+		mockMvc.perform(get("/api/v1/documentos-empresa/listado").param("nombreDocumento", "documento 79"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.contenido.length()").value(11));
+		mockMvc.perform(get("/api/v1/documentos-empresa/listado")
+						.param("nombreDocumento", "documento 79")
+						.param("empresaIds", "00000000-0000-0000-0000-000000000040"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.contenido.length()").value(2));
+	}
+
+	@Test
+	void cursorPorEmpresaRecorreLosDocumentosConLosNulosAlFinal() throws Exception {
+		for (String direccion : List.of("asc", "desc")) {
+			List<String> fechas = new ArrayList<>();
+			Set<String> vistos = new HashSet<>();
+			String cursor = null;
+			do {
+				MockHttpServletRequestBuilder peticion = get("/api/v1/documentos-empresa/empresa/{id}/cursor",
+						"00000000-0000-0000-0000-000000000001")
+						.param("size", "3")
+						.param("sortDir", direccion);
+				if (cursor != null) {
+					peticion.param("cursor", cursor);
+				}
+				String respuesta = mockMvc.perform(peticion)
+						.andExpect(status().isOk())
+						.andReturn().getResponse().getContentAsString();
+				List<String> ids = JsonPath.read(respuesta, "$.data.contenido[*].documento_empresa_id");
+				fechas.addAll(JsonPath.read(respuesta, "$.data.contenido[*].fecha_vencimiento"));
+				vistos.addAll(ids);
+				cursor = JsonPath.read(respuesta, "$.data.siguiente_cursor");
+			} while (cursor != null);
+
+			assertThat(vistos).as("Documentos en orden %s", direccion).hasSize(20);
+			assertThat(fechas.subList(18, 20)).as("Nulos en orden %s", direccion).containsOnlyNulls();
+			assertThat(fechas.subList(0, 18)).doesNotContainNull();
+		}
+	}
+
+	@Test
+	void cursorConFechaAlteradaEsRechazado() throws Exception {
+		String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+				"fechaVencimiento|asc|00000000-0000-0000-0000-000000000001|Vmañana".getBytes(StandardCharsets.UTF_8));
+
+		mockMvc.perform(get("/api/v1/documentos-empresa/empresa/{id}/cursor", "00000000-0000-0000-0000-000000000001")
+						.param("cursor", cursor))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message", containsString("cursor")));
+	}
+
+	@Test
+	void exportacionCalculaElEstadoConLosDiasDeAnticipacion() throws Exception {
+		// Con referencia 2026-01-01 y 5 días: i % 90 = 0 vence ese día y de 1 a 5 está por vencer, 9 por cada valor
+		MvcResult inicio = mockMvc.perform(get("/api/v1/documentos-empresa/exportar")
+						.param("fecha", "2026-01-01")
+						.param("diasAnticipacion", "5"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String csv = mockMvc.perform(asyncDispatch(inicio))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(csv.split(",VENCIDO,", -1)).hasSize(10);
+		assertThat(csv.split(",POR_VENCER,", -1)).hasSize(46);
+		assertThat(csv.split(",SIN_FECHA,", -1)).hasSize(3);
+	}
+
+	@Test
+	void exportacionRechazaDiasDeAnticipacionNegativos() throws Exception {
+		mockMvc.perform(get("/api/v1/documentos-empresa/exportar").param("diasAnticipacion", "-1"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,240 @@
+package com.dataservices.ssoma.gestion_empresas.controller;
+
+import com.dataservices.ssoma.gestion_empresas.service.FileStorageService;
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Subida en streaming con un límite de 1KB, por MockMvc y por el Tomcat embebido
+ * para los cuerpos chunked, que no declaran Content-Length. Descargas con rangos
+ * y peticiones condicionales sobre un archivo deduplicado de 1000 bytes.
+ */
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"app.upload.dir=target/test-uploads-archivos", "app.upload.tamano-maximo=1KB"})
+@AutoConfigureMockMvc
+class FileUploadControllerTest extends PostgresEmbebido {
+
+	private static final Path DIRECTORIO = Paths.get("target", "test-uploads-archivos").toAbsolutePath();
+
+	// "0123456789" repetido hasta 1000 bytes
+	private static final String CONTENIDO = "0123456789".repeat(100);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@LocalServerPort
+	private int puerto;
+
+	@Test
+	void subidaDentroDelLimite() throws Exception {
+		mockMvc.perform(post("/api/v1/archivos/upload")
+						.param("nombre", "informe.txt")
+						.contentType(MediaType.APPLICATION_OCTET_STREAM)
+						.content(new byte[512]))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	void contentLengthMayorAlLimiteSeRechazaSinLeerElCuerpo() throws Exception {
+		MvcResult resultado = mockMvc.perform(post("/api/v1/archivos/upload")
+						.param("nombre", "grande.bin")
+						.contentType(MediaType.APPLICATION_OCTET_STREAM)
+						.content(new byte[2048]))
+				.andExpect(status().isPayloadTooLarge())
+				.andReturn();
+
+		assertThat(resultado.getRequest().getInputStream().available()).isEqualTo(2048);
+		assertThat(temporales()).isZero();
+	}
+
+	@Test
+	void cuerpoChunkedMayorAlLimiteSeCortaYBorraElTemporal() throws Exception {
+		// Sin longitud conocida HttpClient envía Transfer-Encoding: chunked
+		HttpRequest peticion = HttpRequest.newBuilder(
+						URI.create("http://localhost:" + puerto + "/api/v1/archivos/upload?nombre=grande.bin"))
+				.header("Content-Type", MediaType.APPLICATION_OCTET_STREAM_VALUE)
+				.POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(new byte[64 * 1024])))
+				.build();
+
+		HttpResponse<String> respuesta = HttpClient.newHttpClient()
+				.send(peticion, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(respuesta.statusCode()).isEqualTo(413);
+		assertThat(temporales()).isZero();
+	}
+
+	@Test
+	void eliminarUnContenidoRecienSubidoLoConservaDuranteLaGracia() throws Exception {
+		String fileName = subir("acta.txt", "acta sin referencias");
+
+		// Ningún documento lo referencia todavía, pero la subida es de hace menos de GRACIA_LIBERACION
+		mockMvc.perform(delete("/api/v1/archivos/delete/{fileName}", fileName))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void rangoSimple() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName).header(HttpHeaders.RANGE, "bytes=10-19"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/1000"))
+				.andExpect(content().string("0123456789"));
+	}
+
+	@Test
+	void rangoSufijo() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName).header(HttpHeaders.RANGE, "bytes=-5"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 995-999/1000"))
+				.andExpect(content().string("56789"));
+	}
+
+	@Test
+	void variosRangos() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+
+		String cuerpo = mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName)
+						.header(HttpHeaders.RANGE, "bytes=0-2,997-999"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("multipart/byteranges")))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(cuerpo)
+				.contains("Content-Range: bytes 0-2/1000", "Content-Range: bytes 997-999/1000")
+				.contains("012", "789");
+	}
+
+	@Test
+	void rangoInsatisfacible() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName).header(HttpHeaders.RANGE, "bytes=2000-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable());
+	}
+
+	@Test
+	void ifNoneMatchConElETagVigente() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+		String etag = mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void ifRangeConETag() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+		String etag = mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName)
+						.header(HttpHeaders.RANGE, "bytes=0-4")
+						.header(HttpHeaders.IF_RANGE, etag))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().string("01234"));
+		// Si el ETag no coincide el archivo cambió: se envía completo
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName)
+						.header(HttpHeaders.RANGE, "bytes=0-4")
+						.header(HttpHeaders.IF_RANGE, "\"otro\""))
+				.andExpect(status().isOk())
+				.andExpect(content().string(CONTENIDO));
+	}
+
+	@Test
+	void ifRangeConFecha() throws Exception {
+		String fileName = subir("rangos.txt", CONTENIDO);
+		String ultimaModificacion = mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName)
+						.header(HttpHeaders.RANGE, "bytes=0-4")
+						.header(HttpHeaders.IF_RANGE, ultimaModificacion))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().string("01234"));
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName)
+						.header(HttpHeaders.RANGE, "bytes=0-4")
+						.header(HttpHeaders.IF_RANGE, "Thu, 01 Jan 2015 00:00:00 GMT"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(CONTENIDO));
+	}
+
+	@Test
+	void resubirElMismoContenidoNoCambiaLastModifiedNiPierdeLaGracia() throws Exception {
+		String fileName = subir("repetido.txt", "contenido repetido");
+		// Fecha del archivo fuera del período de gracia, como si se hubiera subido hace una hora
+		Files.setLastModifiedTime(fileStorageService.loadFileAsPath(fileName),
+				FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+		String antes = mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+		assertThat(subir("repetido.txt", "contenido repetido")).isEqualTo(fileName);
+
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andExpect(header().string(HttpHeaders.LAST_MODIFIED, antes));
+		// La subida repetida sigue protegida aunque la fecha del archivo sea antigua
+		mockMvc.perform(delete("/api/v1/archivos/delete/{fileName}", fileName))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/v1/archivos/download/{fileName}", fileName))
+				.andExpect(status().isOk());
+	}
+
+	private String subir(String nombre, String contenido) throws Exception {
+		String respuesta = mockMvc.perform(post("/api/v1/archivos/upload")
+						.param("nombre", nombre)
+						.contentType(MediaType.APPLICATION_OCTET_STREAM)
+						.content(contenido.getBytes(StandardCharsets.UTF_8)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(respuesta, "$.data.fileName");
+	}
+
+	private static long temporales() throws IOException {
+		try (Stream<Path> archivos = Files.walk(DIRECTORIO)) {
+			return archivos.filter(archivo -> archivo.getFileName().toString().startsWith(".subida-")).count();
+		}
+	}
+}
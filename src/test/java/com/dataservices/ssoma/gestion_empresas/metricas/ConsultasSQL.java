@@ -0,0 +1,27 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aserciones de MockMvc sobre las sentencias SQL que ejecutó una petición,
+ * tal como las cuenta {@link ConsultasPorPeticionInterceptor}.
+ */
+public final class ConsultasSQL {
+
+	private ConsultasSQL() {
+	}
+
+	public static ResultMatcher maximo(int limite) {
+		return resultado -> {
+			Object consultas = resultado.getRequest().getAttribute(ConsultasPorPeticionInterceptor.ATRIBUTO_CONSULTAS);
+			assertThat(consultas)
+					.as("la petición no pasó por el contador de consultas")
+					.isInstanceOf(Integer.class);
+			assertThat((Integer) consultas)
+					.as("sentencias SQL de %s %s", resultado.getRequest().getMethod(), resultado.getRequest().getRequestURI())
+					.isLessThanOrEqualTo(limite);
+		};
+	}
+}
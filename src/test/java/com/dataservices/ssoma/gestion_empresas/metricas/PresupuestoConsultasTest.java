@@ -0,0 +1,117 @@
+package com.dataservices.ssoma.gestion_empresas.metricas;
+
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint. Cada página devuelve 20 empresas o documentos,
+ * así que un N+1 sobre documentos o empresas supera cualquiera de los máximos.
+ */
+@SpringBootTest(properties = {"app.consultas.muestreo=1", "app.upload.dir=target/test-uploads"})
+@AutoConfigureMockMvc
+class PresupuestoConsultasTest extends PostgresEmbebido {
+
+	private static final String EMPRESA_ID = "00000000-0000-0000-0000-000000000001";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void empresaPorId() throws Exception {
+		mockMvc.perform(get("/api/v1/empresas/{empresaId}", EMPRESA_ID))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.documentos.length()").value(20))
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void empresaPorIdConDocumentosLimitados() throws Exception {
+		mockMvc.perform(get("/api/v1/empresas/{empresaId}", EMPRESA_ID)
+						.param("ordenDocumentos", "nombreDocumento")
+						.param("direccionDocumentos", "desc")
+						.param("limiteDocumentos", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.documentos.length()").value(5))
+				.andExpect(jsonPath("$.data.documentos_total").value(20))
+				.andExpect(jsonPath("$.data.documentos[0].nombre_documento").value("Documento 80"))
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void empresasPaginadas() throws Exception {
+		mockMvc.perform(get("/api/v1/empresas/paginado").param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(2));
+	}
+
+	@Test
+	void empresasConCursor() throws Exception {
+		mockMvc.perform(get("/api/v1/empresas/cursor").param("size", "20").param("sector", "Pesca"))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void documentosPorEmpresa() throws Exception {
+		mockMvc.perform(get("/api/v1/documentos-empresa/empresa/{empresaId}", EMPRESA_ID))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void documentosPorEmpresaPaginados() throws Exception {
+		mockMvc.perform(get("/api/v1/documentos-empresa/empresa/{empresaId}/paginado", EMPRESA_ID).param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(2));
+	}
+
+	@Test
+	void listadoDocumentos() throws Exception {
+		mockMvc.perform(get("/api/v1/documentos-empresa/listado").param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void distribucionSectores() throws Exception {
+		mockMvc.perform(get("/api/v1/empresas/distribucion-sectores"))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void resumenVencimientos() throws Exception {
+		mockMvc.perform(get("/api/v1/documentos-empresa/resumen-vencimientos"))
+				.andExpect(status().isOk())
+				.andExpect(ConsultasSQL.maximo(1));
+	}
+
+	@Test
+	void exportacionEnStreamingNoRegistraMuestra() throws Exception {
+		MvcResult resultado = mockMvc.perform(get("/api/v1/empresas/exportar"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(resultado))
+				.andExpect(status().isOk());
+
+		assertThat(meterRegistry.find(ConsultasPorPeticionInterceptor.METRICA)
+				.tag("uri", "/api/v1/empresas/exportar")
+				.summary()).isNull();
+	}
+}
@@ -0,0 +1,245 @@
+package com.dataservices.ssoma.gestion_empresas.repository;
+
+import com.dataservices.ssoma.gestion_empresas.soporte.PostgresEmbebido;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que las consultas de los repositorios tengan un índice que las sirva.
+ * Cada caso llama al método del repositorio, captura en el proxy del DataSource las sentencias
+ * que Hibernate generó con sus parámetros y explica cada una. Si cambia el JPQL, cambia lo explicado.
+ * <p>
+ * EXPLAIN corre con enable_seqscan desactivado, así que el plan usa un índice siempre que alguno
+ * sirva al predicado: el test prueba que el índice existe, no que el planificador lo elija con
+ * las estadísticas de producción.
+ */
+@SpringBootTest(properties = "app.upload.dir=target/test-uploads")
+class IndicesConsultasTest extends PostgresEmbebido {
+
+	private static final UUID EMPRESA_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+	private static final LocalDate FECHA = LocalDate.of(2026, 1, 15);
+
+	private static final CapturaSentencias CAPTURA = new CapturaSentencias();
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Autowired
+	private DocumentoEmpresaRepository documentoRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private DataSource proxy;
+
+	@BeforeEach
+	void registrarCaptura() {
+		assertThat(proxy).isInstanceOf(ProxyDataSource.class);
+		List<QueryExecutionListener> listeners = ((ProxyDataSource) proxy).getProxyConfig().getQueryListener().getListeners();
+		if (!listeners.contains(CAPTURA)) {
+			((ProxyDataSource) proxy).getProxyConfig().getQueryListener().addListener(CAPTURA);
+		}
+	}
+
+	@FunctionalInterface
+	interface LlamadaRepositorio {
+		void ejecutar(EmpresaRepository empresas, DocumentoEmpresaRepository documentos);
+	}
+
+	static Stream<Arguments> consultas() {
+		return Stream.of(
+				caso("EmpresaRepository.findByRuc", (e, d) -> e.findByRuc("20100000001")),
+				caso("EmpresaRepository.findByRucIn", (e, d) -> e.findByRucIn(List.of("20100000001", "20100000002"))),
+				caso("EmpresaRepository.existsByRucAndEmpresaIdNot",
+						(e, d) -> e.existsByRucAndEmpresaIdNot("20100000001", EMPRESA_ID)),
+				caso("EmpresaRepository.findBySector", (e, d) -> e.findBySector("Pesca")),
+				caso("EmpresaRepository.findDistinctSectores", (e, d) -> e.findDistinctSectores()),
+				caso("EmpresaRepository.countGroupBySector", (e, d) -> e.countGroupBySector()),
+				caso("EmpresaRepository.findByScoreSeguridadBetween", (e, d) -> e.findByScoreSeguridadBetween(50, 79)),
+				caso("EmpresaRepository.findEmpresasConScoreBajo", (e, d) -> e.findEmpresasConScoreBajo(30)),
+				caso("EmpresaRepository.findTop10ByOrderByScoreSeguridadDesc",
+						(e, d) -> e.findTop10ByOrderByScoreSeguridadDesc(PageRequest.of(0, 10))),
+				caso("EmpresaRepository.findByFiltros (sector)",
+						(e, d) -> e.findByFiltros(null, "Pesca", null, null, PageRequest.of(0, 5))),
+				caso("EmpresaRepository.findByFiltrosConCursor (score)",
+						(e, d) -> e.findByFiltrosConCursor(null, null, null, null, "scoreSeguridad", false, null, null, 20)),
+				caso("EmpresaRepository.findConDocumentos",
+						(e, d) -> e.findConDocumentos(EMPRESA_ID, "fechaVencimiento", false, 20)),
+				caso("DocumentoEmpresaRepository.findByEmpresaId", (e, d) -> d.findByEmpresaId(EMPRESA_ID)),
+				caso("DocumentoEmpresaRepository.findByFechaVencimiento", (e, d) -> d.findByFechaVencimiento(FECHA)),
+				caso("DocumentoEmpresaRepository.findDocumentosVencidos", (e, d) -> d.findDocumentosVencidos(FECHA)),
+				caso("DocumentoEmpresaRepository.countDocumentosPorVencer",
+						(e, d) -> d.countDocumentosPorVencer(FECHA, FECHA.plusDays(30))),
+				caso("DocumentoEmpresaRepository.findDocumentosVencidosByEmpresa",
+						(e, d) -> d.findDocumentosVencidosByEmpresa(EMPRESA_ID, FECHA)),
+				caso("DocumentoEmpresaRepository.findDocumentosPorVencerByEmpresa",
+						(e, d) -> d.findDocumentosPorVencerByEmpresa(EMPRESA_ID, FECHA, FECHA.plusDays(30))),
+				caso("DocumentoEmpresaRepository.findListado (fechas)",
+						(e, d) -> d.findListado(null, FECHA, FECHA.plusDays(10), null, null, 21)),
+				caso("DocumentoEmpresaRepository.findListado (empresa y cursor)",
+						(e, d) -> d.findListado(List.of(EMPRESA_ID), null, null, null, EMPRESA_ID, 21)),
+				caso("DocumentoEmpresaRepository.findByEmpresaIdConCursor",
+						(e, d) -> d.findByEmpresaIdConCursor(EMPRESA_ID, "fechaVencimiento", false, FECHA, EMPRESA_ID, 20)),
+				caso("DocumentoEmpresaRepository.streamExportacion", (e, d) -> {
+					try (Stream<?> filas = d.streamExportacion(null, null)) {
+						filas.findFirst();
+					}
+				}),
+				caso("DocumentoEmpresaRepository.contarReferenciasArchivo",
+						(e, d) -> d.contarReferenciasArchivo("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08"))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("consultas")
+	void laConsultaUsaUnIndice(String consulta, LlamadaRepositorio llamada) throws SQLException {
+		for (String plan : explicar(capturar(llamada))) {
+			assertThat(plan)
+					.as("Plan de %s", consulta)
+					.doesNotContain("Seq Scan")
+					.contains("Index");
+		}
+	}
+
+	static Stream<Arguments> consultasCursorScore() {
+		return Stream.of(
+				caso("EmpresaRepository.findByFiltrosConCursor (score asc)",
+						(e, d) -> e.findByFiltrosConCursor(null, null, null, null, "scoreSeguridad", false, 30, EMPRESA_ID, 20)),
+				caso("EmpresaRepository.findByFiltrosConCursor (score desc)",
+						(e, d) -> e.findByFiltrosConCursor(null, null, null, null, "scoreSeguridad", true, 10, EMPRESA_ID, 20))
+		);
+	}
+
+	// El recorrido keyset solo escala si el cursor acota el índice, no si se filtra fila por fila.
+	// El cursor deja menos de una página por delante, así que se ejecutan la comparación de filas y la cola de nulos
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("consultasCursorScore")
+	void elCursorAcotaElIndiceDeScore(String consulta, LlamadaRepositorio llamada) throws SQLException {
+		List<String> planes = explicar(capturar(llamada));
+
+		assertThat(planes).as("Sentencias de %s", consulta).hasSize(2);
+		for (String plan : planes) {
+			assertThat(plan)
+					.as("Plan de %s", consulta)
+					.doesNotContain("Seq Scan")
+					.doesNotContain("Sort")
+					.containsPattern("Index Cond: .*score_seguridad");
+		}
+	}
+
+	// La verificación de la clave foránea al eliminar una empresa la ejecuta PostgreSQL, no un repositorio
+	@Test
+	void laClaveForaneaAlEliminarUnaEmpresaUsaUnIndice() throws SQLException {
+		Sentencia verificacion = new Sentencia(
+				"DELETE FROM documentos_empresa WHERE empresa_id = '" + EMPRESA_ID + "'", List.of());
+
+		assertThat(explicar(List.of(verificacion)).get(0))
+				.doesNotContain("Seq Scan")
+				.contains("Index");
+	}
+
+	private static Arguments caso(String nombre, LlamadaRepositorio llamada) {
+		return Arguments.of(nombre, llamada);
+	}
+
+	private List<Sentencia> capturar(LlamadaRepositorio llamada) {
+		CAPTURA.iniciar();
+		try {
+			transactionTemplate.executeWithoutResult(estado -> llamada.ejecutar(empresaRepository, documentoRepository));
+		} finally {
+			CAPTURA.detener();
+		}
+		assertThat(CAPTURA.sentencias).as("sentencias capturadas").isNotEmpty();
+		return List.copyOf(CAPTURA.sentencias);
+	}
+
+	// EXPLAIN de cada sentencia con los mismos parámetros que recibió, sobre una conexión directa sin el proxy
+	private static List<String> explicar(List<Sentencia> sentencias) throws SQLException {
+		List<String> planes = new ArrayList<>();
+		try (Connection conexion = dataSource().getConnection()) {
+			try (Statement statement = conexion.createStatement()) {
+				statement.execute("SET enable_seqscan = off");
+			}
+			for (Sentencia sentencia : sentencias) {
+				try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sentencia.sql())) {
+					for (ParameterSetOperation parametro : sentencia.parametros()) {
+						parametro.getMethod().invoke(explain, parametro.getArgs());
+					}
+					StringJoiner plan = new StringJoiner("\n", sentencia.sql() + "\n", "");
+					try (ResultSet resultado = explain.executeQuery()) {
+						while (resultado.next()) {
+							plan.add(resultado.getString(1));
+						}
+					}
+					planes.add(plan.toString());
+				} catch (ReflectiveOperationException ex) {
+					throw new IllegalStateException("No se pudo reproducir un parámetro de " + sentencia.sql(), ex);
+				}
+			}
+		}
+		return planes;
+	}
+
+	record Sentencia(String sql, List<ParameterSetOperation> parametros) {
+	}
+
+	// Solo las sentencias del hilo del test: las tareas programadas también consultan en segundo plano
+	private static final class CapturaSentencias implements QueryExecutionListener {
+
+		private volatile Thread hilo;
+		private final List<Sentencia> sentencias = new ArrayList<>();
+
+		void iniciar() {
+			sentencias.clear();
+			hilo = Thread.currentThread();
+		}
+
+		void detener() {
+			hilo = null;
+		}
+
+		@Override
+		public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		}
+
+		@Override
+		public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			if (Thread.currentThread() != hilo) {
+				return;
+			}
+			for (QueryInfo consulta : queryInfoList) {
+				List<ParameterSetOperation> parametros = consulta.getParametersList().isEmpty()
+						? List.of() : consulta.getParametersList().get(0);
+				sentencias.add(new Sentencia(consulta.getQuery(), parametros));
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.dataservices.ssoma.gestion_empresas.soporte;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base de los tests que necesitan la base de datos. Un único PostgreSQL embebido por JVM,
+ * migrado con Flyway y sembrado una vez, que comparten todas las subclases; cada una solo
+ * registra sus propias propiedades. Los datos son de lectura para los tests:
+ * <ul>
+ *     <li>40 empresas con id 00000000-0000-0000-0000-0000000000NN y score {@code i % 101}.</li>
+ *     <li>800 documentos ({@code i} de 0 a 799) de la empresa {@code 1 + i % 40}, con vencimiento
+ *     2026-01-01 + {@code i % 90} días; dos de la empresa 1 (i = 80 e i = 440) no tienen vencimiento.</li>
+ * </ul>
+ */
+public abstract class PostgresEmbebido {
+
+	@DynamicPropertySource
+	static void baseDeDatos(DynamicPropertyRegistry registry) {
+		propiedadesConexion(Instancia.POSTGRES).forEach((clave, valor) -> registry.add(clave, () -> valor));
+	}
+
+	/**
+	 * Propiedades de Spring para conectarse a {@code postgres}, también para los benchmarks
+	 * y la prueba de carga que levantan su propia instancia.
+	 */
+	public static Map<String, String> propiedadesConexion(EmbeddedPostgres postgres) {
+		Map<String, String> propiedades = new LinkedHashMap<>();
+		propiedades.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+		propiedades.put("spring.datasource.username", "postgres");
+		propiedades.put("spring.datasource.password", "");
+		propiedades.put("spring.jpa.show-sql", "false");
+		return propiedades;
+	}
+
+	/**
+	 * Las mismas propiedades como argumentos de línea de comandos, que prevalecen sobre application.yml.
+	 */
+	public static List<String> argumentosConexion(EmbeddedPostgres postgres) {
+		return propiedadesConexion(postgres).entrySet().stream()
+				.map(propiedad -> "--" + propiedad.getKey() + "=" + propiedad.getValue())
+				.toList();
+	}
+
+	protected static DataSource dataSource() {
+		return Instancia.POSTGRES.getPostgresDatabase();
+	}
+
+	// Se inicia con el primer test que la usa, no al cargar la clase para llamar a los métodos estáticos
+	private static final class Instancia {
+
+		private static final EmbeddedPostgres POSTGRES = iniciar();
+	}
+
+	private static EmbeddedPostgres iniciar() {
+		try {
+			EmbeddedPostgres embebido = EmbeddedPostgres.start();
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					embebido.close();
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}));
+
+			DataSource dataSource = embebido.getPostgresDatabase();
+			Flyway.configure().dataSource(dataSource).load().migrate();
+			try (Connection conexion = dataSource.getConnection(); Statement statement = conexion.createStatement()) {
+				statement.execute("INSERT INTO empresas (empresa_id, ruc, razon_social, sector, score_seguridad) " +
+						"SELECT ('00000000-0000-0000-0000-' || lpad(i::text, 12, '0'))::uuid, (20100000000 + i)::text, " +
+						"'Empresa ' || i, (ARRAY['Minería', 'Construcción', 'Pesca'])[1 + i % 3], i % 101 " +
+						"FROM generate_series(1, 40) i");
+				statement.execute("INSERT INTO documentos_empresa (documento_empresa_id, empresa_id, nombre_documento, fecha_vencimiento) " +
+						"SELECT md5('d' || i)::uuid, ('00000000-0000-0000-0000-' || lpad((1 + i % 40)::text, 12, '0'))::uuid, " +
+						"'Documento ' || i, CASE WHEN i IN (80, 440) THEN NULL ELSE DATE '2026-01-01' + i % 90 END " +
+						"FROM generate_series(0, 799) i");
+				statement.execute("ANALYZE");
+			}
+			return embebido;
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} catch (SQLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}